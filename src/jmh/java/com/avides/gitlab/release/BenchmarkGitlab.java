@@ -0,0 +1,143 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.gitlab.api.Pagination;
+
+/**
+ * In-memory GitLab with a synthetic repository of the given number of tags and commits, the JSON pages are rendered once in advance, so the
+ * benchmarks only measure the decoding and processing of the plugin.
+ * <p>
+ * Only the oldest tag is a release tag, so scanning for the last release tag has to walk through all pages.
+ */
+class BenchmarkGitlab implements GitlabTransport
+{
+    static final Integer PROJECT_ID = Integer.valueOf(1);
+
+    static final String HEAD_COMMIT_ID = "HEAD";
+
+    private static final Pattern PAGE = Pattern.compile("[?&]page=(\\d+)");
+
+    private final List<byte[]> tagPages;
+
+    private final List<byte[]> commitPages;
+
+    private final int tagLookupStatusCode;
+
+    /**
+     * @param tags the number of tags
+     * @param commits the number of commits
+     * @param tagLookupStatusCode the status code of the lookup of a tag by its name, <code>404</code> for a missing tag or e.g. <code>500</code> to
+     *            force the scan of all tags
+     */
+    BenchmarkGitlab(int tags, int commits, int tagLookupStatusCode)
+    {
+        this.tagLookupStatusCode = tagLookupStatusCode;
+        tagPages = renderPages(tags, BenchmarkGitlab::renderTag);
+        commitPages = renderPages(commits, BenchmarkGitlab::renderCommit);
+    }
+
+    @Override
+    public GitlabResponse execute(GitlabRequest request)
+    {
+        String path = request.getPath();
+        if (path.startsWith("/projects/" + PROJECT_ID + "/repository/tags?"))
+        {
+            int page = getPage(path);
+            String nextPage = page < tagPages.size() ? String.valueOf(page + 1) : "";
+            return new GitlabResponse(200, singletonMap("X-Next-Page", singletonList(nextPage)), getPage(tagPages, page));
+        }
+        if (path.startsWith("/projects/" + PROJECT_ID + "/repository/tags/"))
+        {
+            return new GitlabResponse(tagLookupStatusCode, emptyMap(), "{\"message\":\"Tag Not Found\"}".getBytes(StandardCharsets.UTF_8));
+        }
+        if (path.startsWith("/projects/" + PROJECT_ID + "/repository/commits?"))
+        {
+            int page = getPage(path);
+            String nextPage = page < commitPages.size() ? String.valueOf(page + 1) : "";
+            return new GitlabResponse(200, singletonMap("X-Next-Page", singletonList(nextPage)), getPage(commitPages, page));
+        }
+        return new GitlabResponse(404, emptyMap(), "{\"message\":\"404 Not Found\"}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return a client of this GitLab without a deadline
+     */
+    GitlabClient connect()
+    {
+        return GitlabClient.connect(this, Deadline.NONE);
+    }
+
+    /**
+     * @return a log which discards everything, so the benchmarks do not measure the console
+     */
+    static Log silentLog()
+    {
+        return new DefaultLog(new ConsoleLogger(Logger.LEVEL_DISABLED, "benchmark"));
+    }
+
+    private static int getPage(String path)
+    {
+        Matcher matcher = PAGE.matcher(path);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+
+    private static byte[] getPage(List<byte[]> pages, int page)
+    {
+        return page <= pages.size() ? pages.get(page - 1) : "[]".getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<byte[]> renderPages(int count, ElementRenderer renderer)
+    {
+        List<byte[]> pages = new ArrayList<>();
+        for (int first = 0; first < count; first += Pagination.MAX_ITEMS_PER_PAGE)
+        {
+            StringBuilder page = new StringBuilder("[");
+            for (int index = first; index < Math.min(first + Pagination.MAX_ITEMS_PER_PAGE, count); index++)
+            {
+                page.append(index > first ? "," : "").append(renderer.render(index, count));
+            }
+            pages.add(page.append("]").toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return pages;
+    }
+
+    private static String renderTag(int index, int count)
+    {
+        String name = index == count - 1 ? "0.0.1" : "1." + (count - index) + ".0-SNAPSHOT";
+        return "{\"name\":\"" + name + "\",\"message\":\"\",\"commit\":{\"id\":\"" + commitId(index) + "\",\"message\":\"Release " + name
+                + "\",\"committed_date\":\"2019-01-01T00:00:00.000+01:00\",\"parent_ids\":[\"" + commitId(index + 1) + "\"]},\"release\":null}";
+    }
+
+    private static String renderCommit(int index, int count)
+    {
+        // every tenth commit is a merge commit, which is skipped in the release note
+        String title = index % 10 == 9 ? "Merge branch 'feature-" + index + "' into 'master'" : "Change number " + (count - index) + " of the module";
+        return "{\"id\":\"" + commitId(index) + "\",\"short_id\":\"" + commitId(index).substring(0, 8) + "\",\"title\":\"" + title
+                + "\",\"author_name\":\"Author\",\"author_email\":\"author@example.com\",\"created_at\":\"2019-01-01T00:00:00.000+01:00\",\"message\":\"" + title
+                + "\"}";
+    }
+
+    private static String commitId(int index)
+    {
+        return String.format("%040x", Integer.valueOf(index));
+    }
+
+    @FunctionalInterface
+    private interface ElementRenderer
+    {
+        String render(int index, int count);
+    }
+}
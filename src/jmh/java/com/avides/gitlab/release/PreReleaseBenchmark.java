@@ -0,0 +1,66 @@
+package com.avides.gitlab.release;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Classifies the versions and tag names of a repository as pre-release or release.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreReleaseBenchmark
+{
+    private static final String[] SUFFIXES = { "-RELEASE", "-SNAPSHOT", "-alpha", "-beta-2", "-RC1", "-M3", ".BUILD-SNAPSHOT", "" };
+
+    @Param({ "100", "1000", "10000", "100000" })
+    private int size;
+
+    private String[] names;
+
+    @Setup
+    public void setUp()
+    {
+        names = new String[size];
+        for (int i = 0; i < size; i++)
+        {
+            names[i] = "1." + i / 100 + "." + i % 100 + SUFFIXES[i % SUFFIXES.length];
+        }
+    }
+
+    @Benchmark
+    public int preReleaseVersions()
+    {
+        int preReleases = 0;
+        for (String name : names)
+        {
+            preReleases += GitlabReleaseMojo.isPreRelease(name) ? 1 : 0;
+        }
+        return preReleases;
+    }
+
+    @Benchmark
+    public int releaseTags()
+    {
+        int releaseTags = 0;
+        for (String name : names)
+        {
+            releaseTags += GitlabReleaseMojo.isReleaseTag(name) ? 1 : 0;
+        }
+        return releaseTags;
+    }
+}
@@ -0,0 +1,57 @@
+package com.avides.gitlab.release;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Streams the commits since the first commit page by page into the release note, which skips the merge commits and enforces the limits of the
+ * release note (<code>0</code> for no limit).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReleaseNoteBenchmark
+{
+    @Param({ "100", "1000", "10000", "100000" })
+    private int size;
+
+    @Param({ "0", "1000" })
+    private int maxCommits;
+
+    private ReleaseContext context;
+
+    private GitlabReleaseMojo mojo;
+
+    @Setup
+    public void setUp()
+    {
+        BenchmarkGitlab gitlab = new BenchmarkGitlab(0, size, 404);
+        context = new ReleaseContext("NAMESPACE", "NAME", "2.0.0", "master", null, null, false, Deadline.NONE).connect(new CachedGitlabRepository(gitlab),
+                gitlab.connect());
+        mojo = new GitlabReleaseMojo();
+        mojo.setLog(BenchmarkGitlab.silentLog());
+        mojo.setGitlabReleaseNoteMaxCommits(maxCommits);
+        mojo.setGitlabReleaseNoteMaxBytes(0);
+    }
+
+    @Benchmark
+    public String releaseNote() throws MojoExecutionException
+    {
+        return mojo.resolveLatestCommitsOnBranch(context, BenchmarkGitlab.PROJECT_ID, null, BenchmarkGitlab.HEAD_COMMIT_ID);
+    }
+}
@@ -0,0 +1,71 @@
+package com.avides.gitlab.release;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.gitlab.api.models.GitlabProject;
+import org.gitlab.api.models.GitlabTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scans the tags of a repository for the last release tag and for the tag of the released version, which is the fallback if a tag can not be
+ * looked up by its name. Only the oldest tag is a release tag, so both scans walk through all pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagScanBenchmark
+{
+    @Param({ "100", "1000", "10000", "100000" })
+    private int size;
+
+    private BenchmarkGitlab gitlab;
+
+    private GitlabReleaseMojo mojo;
+
+    private GitlabProject project;
+
+    @Setup
+    public void setUp()
+    {
+        gitlab = new BenchmarkGitlab(size, 0, 500);
+        mojo = new GitlabReleaseMojo();
+        mojo.setLog(BenchmarkGitlab.silentLog());
+        project = new GitlabProject();
+        project.setId(BenchmarkGitlab.PROJECT_ID);
+    }
+
+    @Benchmark
+    public GitlabTag lastReleaseTag() throws MojoExecutionException
+    {
+        return mojo.getLastReleaseTagCreated(connect(), BenchmarkGitlab.PROJECT_ID);
+    }
+
+    @Benchmark
+    public boolean tagExisting()
+    {
+        return mojo.isTagForProjectVersionAlreadyExists(connect(), project, BenchmarkGitlab.PROJECT_ID);
+    }
+
+    /**
+     * Every invocation uses a new repository, so the last release tag and the existing tags are not cached between the invocations.
+     */
+    private ReleaseContext connect()
+    {
+        return new ReleaseContext("NAMESPACE", "NAME", "2.0.0", "master", null, null, false, Deadline.NONE).connect(new CachedGitlabRepository(gitlab),
+                gitlab.connect());
+    }
+}
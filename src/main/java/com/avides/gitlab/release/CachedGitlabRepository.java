@@ -0,0 +1,82 @@
+package com.avides.gitlab.release;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.gitlab.api.models.GitlabProject;
+import org.gitlab.api.models.GitlabTag;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Transport and already resolved data of a single GitLab repository, shared by all modules of a maven session.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+class CachedGitlabRepository
+{
+    @Getter
+    private final GitlabTransport transport;
+
+    @Getter
+    @Setter
+    private volatile GitlabProject project;
+
+    private final Set<String> existingTagNames = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Lock> releaseLocks = new ConcurrentHashMap<>();
+
+    private volatile GitlabTag lastReleaseTag;
+
+    private volatile boolean lastReleaseTagResolved;
+
+    @Getter
+    @Setter
+    private volatile Boolean releasesApiSupported;
+
+    /**
+     * Returns the lock of the release of a version. The modules of a parallel build which release the same version wait for each other, so only the
+     * first one adds the tag and the others find it as existing tag afterwards.
+     */
+    Lock getReleaseLock(String version)
+    {
+        return releaseLocks.computeIfAbsent(version, key -> new ReentrantLock());
+    }
+
+    boolean isTagExisting(String tagName)
+    {
+        return existingTagNames.contains(tagName);
+    }
+
+    /**
+     * Remembers an existing tag. A newly added tag may be the last release tag, so the cached last release tag is reset.
+     */
+    void addExistingTag(String tagName)
+    {
+        if (existingTagNames.add(tagName))
+        {
+            lastReleaseTagResolved = false;
+        }
+    }
+
+    boolean isLastReleaseTagResolved()
+    {
+        return lastReleaseTagResolved;
+    }
+
+    GitlabTag getLastReleaseTag()
+    {
+        return lastReleaseTag;
+    }
+
+    void setLastReleaseTag(GitlabTag lastReleaseTag)
+    {
+        this.lastReleaseTag = lastReleaseTag;
+        lastReleaseTagResolved = true;
+    }
+}
@@ -0,0 +1,215 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.singletonList;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.apache.maven.plugin.logging.Log;
+import org.gitlab.api.GitlabAPI;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link GitlabTransport} which keeps the project and the tag listings in a directory across builds.
+ * <p>
+ * A cached response is revalidated with its <code>ETag</code>, so an unchanged resource costs a <code>304 Not Modified</code> without a body. Only
+ * the fields used by the plugin are stored, which keeps the tag index compact. The cache files are named by a hash of host, access token and
+ * path, so neither the token nor the path is stored in clear text.
+ */
+class CachingTransport implements GitlabTransport
+{
+    private static final Pattern CACHEABLE_PATH = Pattern.compile("/projects/[^/?]+(/repository/tags(\\?.*)?)?");
+
+    private static final Set<String> CACHED_FIELDS = new HashSet<>(Arrays.asList("id", "name", "name_with_namespace", "path_with_namespace", "commit",
+            "committed_date", "created_at"));
+
+    private static final String[] CACHED_HEADERS = { "X-Next-Page", "X-Total-Pages" };
+
+    private final GitlabTransport transport;
+
+    private final Path directory;
+
+    private final String keyPrefix;
+
+    private final Log log;
+
+    /**
+     * @param transport the transport which executes the requests
+     * @param directory the cache directory
+     * @param host the GitLab host
+     * @param accessToken the access token, which is part of the cache key
+     * @param log the log
+     */
+    CachingTransport(GitlabTransport transport, Path directory, String host, String accessToken, Log log)
+    {
+        this.transport = transport;
+        this.directory = directory;
+        this.keyPrefix = host + "\n" + accessToken + "\n";
+        this.log = log;
+    }
+
+    @Override
+    public GitlabResponse execute(GitlabRequest request) throws IOException
+    {
+        if (!request.isIdempotent() || !CACHEABLE_PATH.matcher(request.getPath()).matches())
+        {
+            return transport.execute(request);
+        }
+
+        Path file = directory.resolve(hash(keyPrefix + request.getPath()) + ".json");
+        CacheEntry entry = read(file);
+
+        GitlabResponse response = transport.execute(entry != null ? request.withHeader("If-None-Match", entry.getEtag()) : request);
+
+        if (entry != null && response.getStatusCode() == 304)
+        {
+            log.debug("Revalidated cached " + request.getPath());
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            entry.getHeaders().forEach((name, value) -> headers.put(name, singletonList(value)));
+            headers.putAll(response.getHeaders());
+            return new GitlabResponse(200, headers, entry.getBody().getBytes(StandardCharsets.UTF_8), response.getWireBytes(), response.getRetries());
+        }
+
+        String etag = response.getHeader("ETag");
+        if (response.getStatusCode() == 200 && etag != null)
+        {
+            write(file, new CacheEntry(etag, cachedHeaders(response), compact(response.getBody())));
+        }
+        return response;
+    }
+
+    /**
+     * A <code>304</code> response may lack the pagination headers, so they are cached as well.
+     */
+    private static Map<String, String> cachedHeaders(GitlabResponse response)
+    {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : CACHED_HEADERS)
+        {
+            String value = response.getHeader(name);
+            if (value != null)
+            {
+                headers.put(name, value);
+            }
+        }
+        return headers;
+    }
+
+    private CacheEntry read(Path file)
+    {
+        if (!Files.isRegularFile(file))
+        {
+            return null;
+        }
+
+        try
+        {
+            return GitlabAPI.MAPPER.readValue(file.toFile(), CacheEntry.class);
+        }
+        catch (IOException e)
+        {
+            log.warn("Failed to read gitlab cache " + file + " -> Ignoring it", e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes to a temporary file first, so parallel builds never read a partially written cache file.
+     */
+    private void write(Path file, CacheEntry entry)
+    {
+        try
+        {
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            GitlabAPI.MAPPER.writeValue(temporaryFile.toFile(), entry);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e)
+        {
+            log.warn("Failed to write gitlab cache " + file, e);
+        }
+    }
+
+    /**
+     * Removes all fields which are not used by the plugin.
+     */
+    private static String compact(byte[] body) throws IOException
+    {
+        JsonNode node = GitlabAPI.MAPPER.readTree(body);
+        retainCachedFields(node);
+        return GitlabAPI.MAPPER.writeValueAsString(node);
+    }
+
+    private static void retainCachedFields(JsonNode node)
+    {
+        if (node.isObject())
+        {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext())
+            {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (CACHED_FIELDS.contains(field.getKey()))
+                {
+                    retainCachedFields(field.getValue());
+                }
+                else
+                {
+                    fields.remove();
+                }
+            }
+        }
+        else if (node.isArray())
+        {
+            node.forEach(CachingTransport::retainCachedFields);
+        }
+    }
+
+    static String hash(String value)
+    {
+        try
+        {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)))
+            {
+                hash.append(String.format("%02x", Byte.valueOf(b)));
+            }
+            return hash.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class CacheEntry
+    {
+        private String etag;
+
+        private Map<String, String> headers = new LinkedHashMap<>();
+
+        private String body;
+    }
+}
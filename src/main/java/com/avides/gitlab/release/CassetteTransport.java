@@ -0,0 +1,282 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.gitlab.api.GitlabAPI;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link GitlabTransport} which records the requests and responses of GitLab into a cassette file or replays them from it without any network.
+ * <p>
+ * The cassette lists one JSON interaction per line, so recording only appends and never rewrites huge responses. The access token is replaced by
+ * <code>[REDACTED]</code> in everything written to the cassette. On replay the interactions are matched by method, path and body. Concurrent
+ * requests may be recorded in any order, so the interactions of the same request are replayed in the order of their recording (e.g. a
+ * <code>503</code> followed by the successful retry) and the last one is repeated afterwards.
+ */
+class CassetteTransport implements GitlabTransport
+{
+    static final String REDACTED = "[REDACTED]";
+
+    /**
+     * Mode of the cassette.
+     */
+    enum Mode
+    {
+        /**
+         * Executes the requests against GitLab and records them
+         */
+        RECORD,
+
+        /**
+         * Answers the requests from the cassette
+         */
+        REPLAY
+    }
+
+    private final GitlabTransport transport;
+
+    private final Mode mode;
+
+    private final Path file;
+
+    private final String accessToken;
+
+    private final boolean latencySimulated;
+
+    private boolean recording;
+
+    private Map<String, Deque<Interaction>> interactions;
+
+    /**
+     * @param transport the transport which executes the recorded requests (ignored on replay)
+     * @param mode the mode
+     * @param file the cassette file, which is truncated when recording starts
+     * @param accessToken the access token, which is redacted (may be <code>null</code>)
+     * @param latencySimulated <code>true</code> if a replayed response is delayed by the recorded latency
+     */
+    CassetteTransport(GitlabTransport transport, Mode mode, Path file, String accessToken, boolean latencySimulated)
+    {
+        this.transport = transport;
+        this.mode = mode;
+        this.file = file;
+        this.accessToken = accessToken;
+        this.latencySimulated = latencySimulated;
+    }
+
+    @Override
+    public GitlabResponse execute(GitlabRequest request) throws IOException
+    {
+        return mode == Mode.RECORD ? record(request) : replay(request);
+    }
+
+    private GitlabResponse record(GitlabRequest request) throws IOException
+    {
+        long start = System.nanoTime();
+        try
+        {
+            GitlabResponse response = transport.execute(request);
+            append(new Interaction(request.getMethod(), redact(request.getPath()), redact(bodyOf(request)), response.getStatusCode(),
+                    redact(response.getHeaders()), redact(response.getBodyAsString()), Long.valueOf(response.getWireBytes()), millisSince(start), null,
+                    null));
+            return response;
+        }
+        catch (IOException e)
+        {
+            append(new Interaction(request.getMethod(), redact(request.getPath()), redact(bodyOf(request)), 0, null, null, null, millisSince(start),
+                    redact(e.getMessage()), e.getClass().getName()));
+            throw e;
+        }
+    }
+
+    private synchronized void append(Interaction interaction) throws IOException
+    {
+        if (!recording)
+        {
+            if (file.getParent() != null)
+            {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, new byte[0]);
+            recording = true;
+        }
+
+        byte[] line = (GitlabAPI.MAPPER.writeValueAsString(interaction) + "\n").getBytes(StandardCharsets.UTF_8);
+        Files.write(file, line, StandardOpenOption.APPEND);
+    }
+
+    private GitlabResponse replay(GitlabRequest request) throws IOException
+    {
+        request.getDeadline().check();
+
+        Interaction interaction = nextInteraction(request.getMethod() + " " + redact(request.getPath()) + "\n" + redact(bodyOf(request)));
+        if (interaction == null)
+        {
+            throw new IOException("No interaction recorded in " + file + " for " + request.getMethod() + " " + redact(request.getPath()));
+        }
+
+        if (latencySimulated && interaction.getMillis() > 0)
+        {
+            sleep(request.getDeadline().bound((int) Math.min(Integer.MAX_VALUE, interaction.getMillis())));
+        }
+
+        if (interaction.getErrorType() != null || interaction.getError() != null)
+        {
+            throw replayError(interaction);
+        }
+
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (interaction.getHeaders() != null)
+        {
+            headers.putAll(interaction.getHeaders());
+        }
+        byte[] body = interaction.getBody() != null ? interaction.getBody().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        long wireBytes = interaction.getWireBytes() != null ? interaction.getWireBytes().longValue() : body.length;
+        return new GitlabResponse(interaction.getStatus(), headers, body, wireBytes, 0);
+    }
+
+    /**
+     * Recreates the recorded failure with its type, so it is handled like the original one (e.g. retried or not). A failure whose type can not be
+     * created from its message is replayed as {@link IOException}.
+     */
+    private static IOException replayError(Interaction interaction)
+    {
+        if (interaction.getErrorType() == null)
+        {
+            // recorded without the type
+            return new IOException("Replayed " + interaction.getError());
+        }
+
+        try
+        {
+            Class<? extends IOException> type = Class.forName(interaction.getErrorType(), false, CassetteTransport.class.getClassLoader())
+                    .asSubclass(IOException.class);
+            Constructor<? extends IOException> constructor = type.getDeclaredConstructor(String.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(interaction.getError());
+        }
+        catch (ReflectiveOperationException | ClassCastException | SecurityException e)
+        {
+            return new IOException("Replayed " + interaction.getErrorType() + ": " + interaction.getError());
+        }
+    }
+
+    private synchronized Interaction nextInteraction(String key) throws IOException
+    {
+        if (interactions == null)
+        {
+            interactions = load();
+        }
+
+        Deque<Interaction> queue = interactions.get(key);
+        if (queue == null)
+        {
+            return null;
+        }
+        return queue.size() > 1 ? queue.poll() : queue.peek();
+    }
+
+    private Map<String, Deque<Interaction>> load() throws IOException
+    {
+        Map<String, Deque<Interaction>> loaded = new HashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8))
+        {
+            if (StringUtils.isNotBlank(line))
+            {
+                Interaction interaction = GitlabAPI.MAPPER.readValue(line, Interaction.class);
+                String key = interaction.getMethod() + " " + interaction.getPath() + "\n" + interaction.getRequestBody();
+                loaded.computeIfAbsent(key, k -> new ArrayDeque<>()).add(interaction);
+            }
+        }
+        return loaded;
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while replaying");
+        }
+    }
+
+    private static String bodyOf(GitlabRequest request)
+    {
+        return request.getBody() != null ? new String(request.getBody(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static long millisSince(long start)
+    {
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    private String redact(String value)
+    {
+        return value == null || StringUtils.isEmpty(accessToken) ? value : value.replace(accessToken, REDACTED);
+    }
+
+    private Map<String, List<String>> redact(Map<String, List<String>> headers)
+    {
+        Map<String, List<String>> redacted = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach((name, values) -> redacted.put(name, values.stream().map(this::redact).collect(Collectors.toList())));
+        return redacted;
+    }
+
+    /**
+     * Recorded request and its response, or its failure without response.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Interaction
+    {
+        private String method;
+
+        private String path;
+
+        private String requestBody;
+
+        private int status;
+
+        private Map<String, List<String>> headers;
+
+        private String body;
+
+        /**
+         * Number of body bytes received from GitLab or <code>null</code> if the cassette was recorded without it
+         */
+        private Long wireBytes;
+
+        private long millis;
+
+        /**
+         * Message of the failure
+         */
+        private String error;
+
+        /**
+         * Class name of the failure or <code>null</code> if the cassette was recorded without it
+         */
+        private String errorType;
+    }
+}
@@ -0,0 +1,46 @@
+package com.avides.gitlab.release;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the consecutive failed requests against a GitLab host. After the threshold is reached the circuit is open for the rest of the session,
+ * so the remaining modules do not repeat the same doomed requests.
+ */
+class CircuitBreaker
+{
+    private final int threshold;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /**
+     * @param threshold the number of consecutive failures which opens the circuit (<code>0</code> or less never opens it)
+     */
+    CircuitBreaker(int threshold)
+    {
+        this.threshold = threshold;
+    }
+
+    boolean isOpen()
+    {
+        return threshold > 0 && consecutiveFailures.get() >= threshold;
+    }
+
+    int getConsecutiveFailures()
+    {
+        return consecutiveFailures.get();
+    }
+
+    void recordSuccess()
+    {
+        // an open circuit stays open
+        if (!isOpen())
+        {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    void recordFailure()
+    {
+        consecutiveFailures.incrementAndGet();
+    }
+}
@@ -0,0 +1,71 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+
+/**
+ * {@link GitlabTransport} which records the outcome of every request in a {@link CircuitBreaker} and rejects all requests while the circuit is
+ * open.
+ * <p>
+ * Failed requests are requests which could not be executed, were rate limited (<code>429</code>) or failed on the server side (<code>5xx</code>).
+ * Requests which were abandoned by the client, because the {@link Deadline} expired or the thread was interrupted, as well as the rejections of
+ * the open circuit itself say nothing about the host and are not recorded.
+ */
+class CircuitBreakerTransport implements GitlabTransport
+{
+    private final GitlabTransport transport;
+
+    private final CircuitBreaker circuitBreaker;
+
+    CircuitBreakerTransport(GitlabTransport transport, CircuitBreaker circuitBreaker)
+    {
+        this.transport = transport;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public GitlabResponse execute(GitlabRequest request) throws IOException
+    {
+        if (circuitBreaker.isOpen())
+        {
+            throw new GitlabUnavailableException("Gitlab is unavailable after " + circuitBreaker.getConsecutiveFailures() + " consecutive failures");
+        }
+
+        GitlabResponse response;
+        try
+        {
+            response = transport.execute(request);
+        }
+        catch (IOException e)
+        {
+            if (isHostFailure(e))
+            {
+                circuitBreaker.recordFailure();
+            }
+            throw e;
+        }
+
+        if (response.getStatusCode() == 429 || response.getStatusCode() >= 500)
+        {
+            circuitBreaker.recordFailure();
+        }
+        else
+        {
+            circuitBreaker.recordSuccess();
+        }
+        return response;
+    }
+
+    /**
+     * A read timeout is a failure of the host, while other interruptions (including {@link DeadlineExceededException}) are caused by the client.
+     */
+    private static boolean isHostFailure(IOException e)
+    {
+        if (e instanceof GitlabUnavailableException)
+        {
+            return false;
+        }
+        return !(e instanceof InterruptedIOException) || e instanceof SocketTimeoutException;
+    }
+}
@@ -0,0 +1,136 @@
+package com.avides.gitlab.release;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * Executes independent GitLab requests concurrently on a bounded number of threads, so the release only waits for the slowest request instead of
+ * the sum of all round trips.
+ * <p>
+ * With a parallelism of <code>1</code> nothing is executed in advance, every request is executed on the calling thread when its result is needed
+ * for the first time.
+ */
+class ConcurrentRequests implements AutoCloseable
+{
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final ExecutorService executor;
+
+    ConcurrentRequests(int parallelism)
+    {
+        executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism, runnable ->
+        {
+            Thread thread = new Thread(runnable, "gitlab-release-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Submits the request for execution.
+     *
+     * @param request the request
+     * @return the result of the request, which waits for the request to be completed
+     */
+    <T> Result<T> submit(Request<T> request)
+    {
+        if (executor == null)
+        {
+            return new LazyResult<>(request);
+        }
+
+        Future<T> future = executor.submit(request::execute);
+        return () -> await(future);
+    }
+
+    @Override
+    public void close()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws MojoExecutionException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while waiting for gitlab", e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof MojoExecutionException)
+            {
+                throw (MojoExecutionException) e.getCause();
+            }
+            throw new MojoExecutionException("Failed to execute gitlab request", e.getCause());
+        }
+    }
+
+    /**
+     * GitLab request which is executed by {@link ConcurrentRequests}.
+     */
+    @FunctionalInterface
+    interface Request<T>
+    {
+        T execute() throws MojoExecutionException;
+    }
+
+    /**
+     * Result of a submitted {@link Request}.
+     */
+    @FunctionalInterface
+    interface Result<T>
+    {
+        /**
+         * Waits for the request to be completed.
+         *
+         * @return the result of the request
+         * @throws MojoExecutionException If the request failed
+         */
+        T get() throws MojoExecutionException;
+    }
+
+    private static class LazyResult<T> implements Result<T>
+    {
+        private final Request<T> request;
+
+        private boolean executed;
+
+        private T result;
+
+        LazyResult(Request<T> request)
+        {
+            this.request = request;
+        }
+
+        @Override
+        public T get() throws MojoExecutionException
+        {
+            if (!executed)
+            {
+                try
+                {
+                    result = request.execute();
+                }
+                catch (RuntimeException e)
+                {
+                    throw new MojoExecutionException("Failed to execute gitlab request", e);
+                }
+                executed = true;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.avides.gitlab.release;
+
+import java.time.Clock;
+
+/**
+ * Point in time until which the GitLab requests of a release have to be completed.
+ * <p>
+ * The remaining time bounds the timeouts and retries of every single request, so a degraded GitLab can not block the build longer than the
+ * configured time budget.
+ */
+final class Deadline
+{
+    static final Deadline NONE = new Deadline(Long.MAX_VALUE, Clock.systemUTC());
+
+    private final long endMillis;
+
+    private final Clock clock;
+
+    private Deadline(long endMillis, Clock clock)
+    {
+        this.endMillis = endMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @param budgetMillis the time budget in milliseconds (<code>0</code> or less is unlimited)
+     * @return the deadline
+     */
+    static Deadline after(long budgetMillis)
+    {
+        return after(budgetMillis, Clock.systemUTC());
+    }
+
+    static Deadline after(long budgetMillis, Clock clock)
+    {
+        return budgetMillis > 0 ? new Deadline(clock.millis() + budgetMillis, clock) : NONE;
+    }
+
+    boolean isUnlimited()
+    {
+        return endMillis == Long.MAX_VALUE;
+    }
+
+    long getRemainingMillis()
+    {
+        return isUnlimited() ? Long.MAX_VALUE : Math.max(0, endMillis - clock.millis());
+    }
+
+    boolean isExpired()
+    {
+        return getRemainingMillis() == 0;
+    }
+
+    /**
+     * Bounds a timeout by the remaining time.
+     *
+     * @param timeoutMillis the configured timeout in milliseconds (<code>0</code> is infinite)
+     * @return the timeout in milliseconds which is reached at the deadline at the latest
+     */
+    int bound(int timeoutMillis)
+    {
+        if (isUnlimited())
+        {
+            return timeoutMillis;
+        }
+
+        int remainingMillis = (int) Math.min(Integer.MAX_VALUE, Math.max(1, getRemainingMillis()));
+        return timeoutMillis > 0 ? Math.min(timeoutMillis, remainingMillis) : remainingMillis;
+    }
+
+    /**
+     * @throws DeadlineExceededException If the deadline is expired
+     */
+    void check() throws DeadlineExceededException
+    {
+        if (isExpired())
+        {
+            throw new DeadlineExceededException("Time budget for gitlab requests exceeded");
+        }
+    }
+}
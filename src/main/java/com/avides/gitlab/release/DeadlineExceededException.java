@@ -0,0 +1,16 @@
+package com.avides.gitlab.release;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Thrown if a GitLab request is not completed before the {@link Deadline}.
+ */
+class DeadlineExceededException extends InterruptedIOException
+{
+    private static final long serialVersionUID = 1L;
+
+    DeadlineExceededException(String message)
+    {
+        super(message);
+    }
+}
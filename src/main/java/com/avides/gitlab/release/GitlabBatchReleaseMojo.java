@@ -0,0 +1,198 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.gitlab.api.models.GitlabProject;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.Value;
+
+/**
+ * Releases the same version of many repositories in a single build.
+ * <p>
+ * The repositories are configured by their paths (<code>namespace/name</code>) and/or a group, whose projects (including subgroups) are all
+ * released. The repositories are released concurrently on <code>gitlabParallelism</code> threads, which share a single connection to GitLab. The
+ * requests of a single repository are executed sequentially on its thread, so the batch never uses more threads. Every repository has its own time
+ * budget of <code>gitlabTimeout</code>, so a slow repository does not use up the budget of the others. The outcome and the duration of every
+ * release are logged as a summary table.
+ */
+@Mojo(name = "batch-release", aggregator = true, requiresProject = false, threadSafe = true)
+@Getter
+@Setter
+public class GitlabBatchReleaseMojo extends GitlabReleaseMojo
+{
+    @Parameter(property = "gitlabRepositories")
+    private List<String> gitlabRepositories;
+
+    @Parameter(property = "gitlabGroup")
+    private String gitlabGroup;
+
+    @Parameter(property = "gitlabVersion", required = true)
+    private String gitlabVersion;
+
+    /**
+     * Execute the release of all repositories.
+     *
+     * @throws MojoExecutionException If a release failed
+     */
+    @Override
+    public void execute() throws MojoExecutionException
+    {
+        Map<String, GitlabProject> repositories = resolveRepositories(Deadline.after(getGitlabTimeout()));
+        if (repositories.isEmpty())
+        {
+            getLog().warn("No gitlab repositories found -> Please define 'gitlabRepositories' or 'gitlabGroup' in your POM.");
+            return;
+        }
+
+        getLog().info("Releasing " + gitlabVersion + " of " + repositories.size() + " repositories...");
+
+        List<BatchResult> results = new ArrayList<>();
+        try (ConcurrentRequests requests = new ConcurrentRequests(getGitlabParallelism()))
+        {
+            List<ConcurrentRequests.Result<BatchResult>> pending = new ArrayList<>();
+            repositories.forEach((path, project) -> pending.add(requests.submit(() -> releaseRepository(path, project))));
+            for (ConcurrentRequests.Result<BatchResult> result : pending)
+            {
+                results.add(result.get());
+            }
+        }
+
+        logSummary(results);
+
+        long failed = results.stream().filter(result -> result.getFailure() != null).count();
+        if (failed > 0)
+        {
+            String message = "Failed to release " + failed + " of " + results.size() + " repositories";
+            getLog().error(message);
+            throw new MojoExecutionException(message, results.stream().filter(result -> result.getFailure() != null).findFirst().get().getFailure());
+        }
+    }
+
+    /**
+     * Resolves the configured repositories and the projects of the group. The projects of the group are already resolved, so they are not requested
+     * again by their release.
+     *
+     * @return the projects by the paths of the repositories, <code>null</code> if the project is not resolved yet
+     */
+    private Map<String, GitlabProject> resolveRepositories(Deadline deadline) throws MojoExecutionException
+    {
+        Map<String, GitlabProject> repositories = new LinkedHashMap<>();
+        if (gitlabRepositories != null)
+        {
+            gitlabRepositories.stream().map(String::trim).filter(StringUtils::isNotEmpty).forEach(path -> repositories.put(path, null));
+        }
+
+        if (StringUtils.isNotBlank(gitlabGroup))
+        {
+            try
+            {
+                getLog().info("Resolving projects of group " + gitlabGroup + "...");
+                GitlabClient client = GitlabClient.connect(connectTransport(), deadline);
+                List<GitlabProject> projects = client.getGroupProjects(gitlabGroup);
+                projects.forEach(project -> repositories.put(project.getPathWithNamespace(), project));
+                getLog().info("Resolved " + projects.size() + " projects of group " + gitlabGroup);
+            }
+            catch (IOException e)
+            {
+                getLog().error("Failed to resolve projects of group " + gitlabGroup, e);
+                throw new MojoExecutionException("Failed to resolve projects of group " + gitlabGroup, e);
+            }
+        }
+        return repositories;
+    }
+
+    private BatchResult releaseRepository(String path, GitlabProject project)
+    {
+        long start = System.nanoTime();
+        Deadline deadline = Deadline.after(getGitlabTimeout());
+        int separator = path.lastIndexOf('/');
+        if (separator <= 0)
+        {
+            return new BatchResult(path, null, 0, new MojoExecutionException("Invalid repository path: " + path + " -> Please use 'namespace/name'"));
+        }
+
+        String namespace = path.substring(0, separator);
+        String name = path.substring(separator + 1);
+        if (project != null)
+        {
+            connectRepository(namespace, name).setProject(project);
+        }
+
+        try
+        {
+            // the repositories are released without a module, so the commits are only filtered by an explicitly configured path
+            String modulePath = getGitlabModulePath() != null ? resolveModulePath() : null;
+            ReleaseOutcome outcome = release(createContext(namespace, name, gitlabVersion, modulePath, null, false, deadline));
+            return new BatchResult(path, outcome, elapsedMillis(start), null);
+        }
+        catch (MojoExecutionException | RuntimeException e)
+        {
+            return new BatchResult(path, null, elapsedMillis(start), e);
+        }
+    }
+
+    /**
+     * The repositories are already released concurrently, so the requests of a single release are executed sequentially.
+     */
+    @Override
+    int resolvePreflightParallelism()
+    {
+        return 1;
+    }
+
+    private void logSummary(List<BatchResult> results)
+    {
+        int width = Math.max("Repository".length(), results.stream().mapToInt(result -> result.getPath().length()).max().orElse(0));
+        String format = "%-" + width + "s | %-16s | %8s";
+        getLog().info(String.format(format, "Repository", "Outcome", "Time"));
+        getLog().info(StringUtils.repeat('-', width) + "-+-" + StringUtils.repeat('-', 16) + "-+-" + StringUtils.repeat('-', 8));
+        for (BatchResult result : results)
+        {
+            String line = String.format(format, result.getPath(), result.getOutcomeName(), result.getMillis() + " ms");
+            if (result.getFailure() != null)
+            {
+                getLog().error(line + " | " + result.getFailure().getMessage());
+            }
+            else
+            {
+                getLog().info(line);
+            }
+        }
+    }
+
+    private static long elapsedMillis(long start)
+    {
+        return (System.nanoTime() - start) / 1000000;
+    }
+
+    @Value
+    private static class BatchResult
+    {
+        private String path;
+
+        private ReleaseOutcome outcome;
+
+        private long millis;
+
+        private Exception failure;
+
+        String getOutcomeName()
+        {
+            if (failure != null)
+            {
+                return "FAILED";
+            }
+            return outcome != null ? outcome.name() : "-";
+        }
+    }
+}
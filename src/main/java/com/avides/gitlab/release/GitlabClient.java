@@ -0,0 +1,226 @@
+package com.avides.gitlab.release;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.gitlab.api.GitlabAPI;
+import org.gitlab.api.GitlabAPIException;
+import org.gitlab.api.Pagination;
+import org.gitlab.api.http.Query;
+import org.gitlab.api.models.GitlabBranch;
+import org.gitlab.api.models.GitlabCommitComparison;
+import org.gitlab.api.models.GitlabProject;
+import org.gitlab.api.models.GitlabRelease;
+import org.gitlab.api.models.GitlabTag;
+import org.gitlab.api.models.GitlabVersion;
+
+/**
+ * The part of the GitLab API which is used by the plugin, executed by a {@link GitlabTransport}.
+ * <p>
+ * The models and the JSON mapping of the GitLab API are reused, and the errors are reported the same way: <code>404</code> as
+ * {@link FileNotFoundException} and every other error status as {@link GitlabAPIException}.
+ */
+class GitlabClient
+{
+    private final GitlabTransport transport;
+
+    private final Deadline deadline;
+
+    private GitlabClient(GitlabTransport transport, Deadline deadline)
+    {
+        this.transport = transport;
+        this.deadline = deadline;
+    }
+
+    /**
+     * @param transport the transport which executes the requests
+     * @param deadline the deadline of all requests of the client
+     * @return the client
+     */
+    static GitlabClient connect(GitlabTransport transport, Deadline deadline)
+    {
+        return new GitlabClient(transport, deadline);
+    }
+
+    GitlabProject getProject(String namespace, String projectName) throws IOException
+    {
+        return get(GitlabProject.URL + "/" + encode(namespace + "/" + projectName), GitlabProject.class);
+    }
+
+    GitlabBranch getBranch(Serializable projectId, String branchName) throws IOException
+    {
+        return get(GitlabProject.URL + "/" + encode(projectId) + "/repository/branches/" + encode(branchName), GitlabBranch.class);
+    }
+
+    GitlabCommitComparison compareCommits(Serializable projectId, String from, String to) throws IOException
+    {
+        Query query = new Query().append("from", from).append("to", to);
+        return get(GitlabProject.URL + "/" + encode(projectId) + GitlabCommitComparison.URL + query, GitlabCommitComparison.class);
+    }
+
+    /**
+     * Lists the projects of the group and its subgroups, archived projects are omitted.
+     */
+    List<GitlabProject> getGroupProjects(String groupPath) throws IOException
+    {
+        Query query = new Query().append("include_subgroups", "true").append("archived", "false").append("simple", "true")
+                .append(Pagination.PARAM_PER_PAGE, String.valueOf(Pagination.MAX_ITEMS_PER_PAGE));
+        List<GitlabProject> projects = new ArrayList<>();
+        try
+        {
+            asIterator("/groups/" + encode(groupPath) + "/projects" + query, GitlabProject[].class).forEachRemaining(page -> projects.addAll(Arrays.asList(page)));
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        return projects;
+    }
+
+    List<GitlabTag> getTags(GitlabProject project)
+    {
+        List<GitlabTag> tags = new ArrayList<>();
+        asIterator(GitlabProject.URL + "/" + project.getId() + GitlabTag.URL + "?" + Pagination.PARAM_PER_PAGE + "=" + Pagination.MAX_ITEMS_PER_PAGE, GitlabTag[].class)
+                .forEachRemaining(page -> tags.addAll(Arrays.asList(page)));
+        return tags;
+    }
+
+    GitlabTag addTag(GitlabProject project, String tagName, String ref, String message, String releaseDescription) throws IOException
+    {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("tag_name", tagName);
+        data.put("ref", ref);
+        data.put("message", message);
+        data.put("release_description", releaseDescription);
+        return post(GitlabProject.URL + "/" + project.getId() + GitlabTag.URL, data, GitlabTag.class);
+    }
+
+    GitlabVersion getVersion() throws IOException
+    {
+        return get("/version", GitlabVersion.class);
+    }
+
+    /**
+     * Creates the tag, if it does not exist yet, and the release with its asset links in a single request of the releases API (GitLab 11.7 and
+     * later).
+     */
+    GitlabRelease createRelease(GitlabProject project, String tagName, String ref, String description, List<GitlabReleaseLink> links) throws IOException
+    {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("name", tagName);
+        data.put("tag_name", tagName);
+        data.put("ref", ref);
+        data.put("description", description);
+        if (links != null && !links.isEmpty())
+        {
+            List<Map<String, String>> assetLinks = new ArrayList<>();
+            for (GitlabReleaseLink link : links)
+            {
+                Map<String, String> assetLink = new LinkedHashMap<>();
+                assetLink.put("name", link.getName());
+                assetLink.put("url", link.getUrl());
+                assetLinks.add(assetLink);
+            }
+            data.put("assets", Collections.singletonMap("links", assetLinks));
+        }
+        return post(GitlabProject.URL + "/" + project.getId() + "/releases", data, GitlabRelease.class);
+    }
+
+    /**
+     * Requests a single resource.
+     *
+     * @param tailUrl the path relative to the API root
+     * @param type the type of the resource
+     * @return the resource
+     * @throws FileNotFoundException If GitLab answers with 404
+     * @throws IOException If the request failed
+     */
+    <T> T get(String tailUrl, Class<T> type) throws IOException
+    {
+        return parse(tailUrl, transport.execute(GitlabRequest.get(tailUrl).withDeadline(deadline)), type);
+    }
+
+    /**
+     * Requests a paginated listing lazily page by page. The next page is determined by the <code>X-Next-Page</code> header, so no additional empty
+     * page is requested.
+     *
+     * @param tailUrl the path of the first page relative to the API root
+     * @param type the array type of the listed elements
+     * @return the pages, failed requests are thrown as {@link UncheckedIOException}
+     */
+    <T> Iterator<T[]> asIterator(String tailUrl, Class<T[]> type)
+    {
+        return new Iterator<T[]>()
+        {
+            private String nextUrl = tailUrl;
+
+            @Override
+            public boolean hasNext()
+            {
+                return nextUrl != null;
+            }
+
+            @Override
+            public T[] next()
+            {
+                if (nextUrl == null)
+                {
+                    throw new NoSuchElementException();
+                }
+
+                try
+                {
+                    GitlabResponse response = transport.execute(GitlabRequest.get(nextUrl).withDeadline(deadline));
+                    T[] elements = parse(nextUrl, response, type);
+                    String nextPage = response.getHeader("X-Next-Page");
+                    nextUrl = elements.length > 0 && nextPage != null && !nextPage.isEmpty() ? withPage(tailUrl, nextPage) : null;
+                    return elements;
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private <T> T post(String tailUrl, Object data, Class<T> type) throws IOException
+    {
+        return parse(tailUrl, transport.execute(GitlabRequest.post(tailUrl, GitlabAPI.MAPPER.writeValueAsBytes(data)).withDeadline(deadline)), type);
+    }
+
+    private static <T> T parse(String tailUrl, GitlabResponse response, Class<T> type) throws IOException
+    {
+        if (response.getStatusCode() == 404)
+        {
+            throw new FileNotFoundException(tailUrl);
+        }
+        if (!response.isSuccessful())
+        {
+            throw new GitlabAPIException(response.getBodyAsString(), Integer.valueOf(response.getStatusCode()), null);
+        }
+        return GitlabJsonDecoder.decode(response.getBody(), type);
+    }
+
+    private static String withPage(String tailUrl, String page)
+    {
+        return tailUrl + (tailUrl.indexOf('?') > 0 ? '&' : '?') + Pagination.PARAM_PAGE + "=" + page;
+    }
+
+    private static String encode(Serializable value) throws UnsupportedEncodingException
+    {
+        return URLEncoder.encode(String.valueOf(value), "UTF-8");
+    }
+}
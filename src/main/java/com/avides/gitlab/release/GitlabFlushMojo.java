@@ -0,0 +1,121 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.gitlab.api.models.GitlabProject;
+
+/**
+ * Creates the releases which are spooled by the release goal, because GitLab was unreachable or <code>gitlabAsync</code> is enabled.
+ * <p>
+ * The spooled releases are created concurrently on <code>gitlabParallelism</code> threads, every release with its own time budget of
+ * <code>gitlabTimeout</code>. An already existing tag is treated as released, so a release which is flushed twice does not fail. Releases which could
+ * not be created stay in the spool for the next flush.
+ */
+@Mojo(name = "flush", aggregator = true, requiresProject = false, threadSafe = true)
+public class GitlabFlushMojo extends GitlabReleaseMojo
+{
+    /**
+     * Execute the flush of the spooled releases.
+     *
+     * @throws MojoExecutionException If a spooled release could not be created
+     */
+    @Override
+    public void execute() throws MojoExecutionException
+    {
+        if (getGitlabSpoolDirectory() == null)
+        {
+            getLog().warn("Gitlab spool directory not found -> Please define 'gitlabSpoolDirectory' in your POM.");
+            return;
+        }
+
+        ReleaseSpool spool = new ReleaseSpool(getGitlabSpoolDirectory().toPath());
+        List<Path> files = listSpooledReleases(spool);
+        if (files.isEmpty())
+        {
+            getLog().info("No spooled releases in " + getGitlabSpoolDirectory());
+            return;
+        }
+
+        getLog().info("Flushing " + files.size() + " spooled release(s)...");
+
+        try (ConcurrentRequests requests = new ConcurrentRequests(getGitlabParallelism()))
+        {
+            List<ConcurrentRequests.Result<Boolean>> results = new ArrayList<>();
+            files.forEach(file -> results.add(requests.submit(() -> Boolean.valueOf(flush(spool, file)))));
+
+            int flushed = 0;
+            int failed = 0;
+            MojoExecutionException failure = null;
+            for (ConcurrentRequests.Result<Boolean> result : results)
+            {
+                try
+                {
+                    flushed += result.get().booleanValue() ? 1 : 0;
+                }
+                catch (MojoExecutionException e)
+                {
+                    failed++;
+                    failure = failure != null ? failure : e;
+                }
+            }
+
+            if (failure != null)
+            {
+                String message = "Failed to flush " + failed + " of " + files.size() + " spooled release(s)";
+                getLog().error(message);
+                throw new MojoExecutionException(message, failure);
+            }
+            getLog().info("Flushed " + flushed + " spooled release(s)");
+        }
+    }
+
+    private List<Path> listSpooledReleases(ReleaseSpool spool) throws MojoExecutionException
+    {
+        try
+        {
+            return spool.list();
+        }
+        catch (IOException e)
+        {
+            getLog().error("Failed to read spool", e);
+            throw new MojoExecutionException("Failed to read spool", e);
+        }
+    }
+
+    /**
+     * @return <code>false</code> if the release belongs to another GitLab host and is left in the spool
+     */
+    private boolean flush(ReleaseSpool spool, Path file) throws MojoExecutionException
+    {
+        Deadline deadline = Deadline.after(getGitlabTimeout());
+        try
+        {
+            ReleaseRequest request = spool.read(file);
+            if (!getGitlabHost().equals(request.getHost()))
+            {
+                getLog().info("Skipping spooled release " + request.getReleaseKey() + " of another gitlab host");
+                return false;
+            }
+
+            getLog().info("Flushing spooled release " + request.getReleaseKey() + "...");
+            CachedGitlabRepository repository = connectRepository(request.getNamespace(), request.getName());
+            GitlabClient client = GitlabClient.connect(repository.getTransport(), deadline);
+            GitlabProject project = resolveProject(repository, client, request.getNamespace(), request.getName());
+            if (addTag(repository, client, project, request, true) != ReleaseOutcome.PLANNED)
+            {
+                spool.remove(file);
+            }
+            return true;
+        }
+        catch (IOException e)
+        {
+            getLog().error("Failed to flush spooled release " + file, e);
+            throw new MojoExecutionException("Failed to flush spooled release " + file, e);
+        }
+    }
+}
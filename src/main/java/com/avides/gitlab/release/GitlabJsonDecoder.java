@@ -0,0 +1,190 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.gitlab.api.GitlabAPI;
+import org.gitlab.api.models.GitlabBranchCommit;
+import org.gitlab.api.models.GitlabCommit;
+import org.gitlab.api.models.GitlabCommitComparison;
+import org.gitlab.api.models.GitlabTag;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Decodes the commits and tags with the Jackson streaming API and only keeps the fields used by the plugin (<code>id</code>, <code>title</code>,
+ * <code>name</code> and <code>committed_date</code>).
+ * <p>
+ * All other fields (messages, diffs, author data, ...) are skipped while parsing, so neither a JSON tree nor the unused strings are created. Other
+ * types are decoded by the mapper of the GitLab API.
+ */
+final class GitlabJsonDecoder
+{
+    private GitlabJsonDecoder()
+    {
+    }
+
+    static <T> T decode(byte[] body, Class<T> type) throws IOException
+    {
+        try (JsonParser parser = GitlabAPI.MAPPER.getFactory().createParser(body))
+        {
+            parser.nextToken();
+
+            if (type == GitlabCommit[].class)
+            {
+                return type.cast(readArray(parser, GitlabJsonDecoder::readCommit).toArray(new GitlabCommit[0]));
+            }
+            if (type == GitlabTag[].class)
+            {
+                return type.cast(readArray(parser, GitlabJsonDecoder::readTag).toArray(new GitlabTag[0]));
+            }
+            if (type == GitlabTag.class)
+            {
+                return type.cast(readTag(parser));
+            }
+            if (type == GitlabCommitComparison.class)
+            {
+                return type.cast(readComparison(parser));
+            }
+            return parser.readValueAs(type);
+        }
+    }
+
+    private static GitlabCommit readCommit(JsonParser parser) throws IOException
+    {
+        GitlabCommit commit = new GitlabCommit();
+        readObject(parser, fieldName ->
+        {
+            switch (fieldName)
+            {
+                case "id":
+                    commit.setId(parser.getValueAsString());
+                    break;
+                case "title":
+                    commit.setTitle(parser.getValueAsString());
+                    break;
+                case "committed_date":
+                    commit.setCommittedDate(readDate(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        });
+        return commit;
+    }
+
+    private static GitlabTag readTag(JsonParser parser) throws IOException
+    {
+        GitlabTag tag = new GitlabTag();
+        readObject(parser, fieldName ->
+        {
+            switch (fieldName)
+            {
+                case "name":
+                    tag.setName(parser.getValueAsString());
+                    break;
+                case "commit":
+                    tag.setCommit(readBranchCommit(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        });
+        return tag;
+    }
+
+    private static GitlabBranchCommit readBranchCommit(JsonParser parser) throws IOException
+    {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT)
+        {
+            return null;
+        }
+
+        GitlabBranchCommit commit = new GitlabBranchCommit();
+        readObject(parser, fieldName ->
+        {
+            switch (fieldName)
+            {
+                case "id":
+                    commit.setId(parser.getValueAsString());
+                    break;
+                case "committed_date":
+                    commit.setCommittedDate(readDate(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        });
+        return commit;
+    }
+
+    private static GitlabCommitComparison readComparison(JsonParser parser) throws IOException
+    {
+        GitlabCommitComparison comparison = new GitlabCommitComparison();
+        readObject(parser, fieldName ->
+        {
+            if ("commits".equals(fieldName))
+            {
+                comparison.setCommits(readArray(parser, GitlabJsonDecoder::readCommit));
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+        });
+        return comparison;
+    }
+
+    private static Date readDate(JsonParser parser) throws IOException
+    {
+        return parser.getCurrentToken() == JsonToken.VALUE_NULL ? null : parser.readValueAs(Date.class);
+    }
+
+    /**
+     * Calls the field reader with the parser positioned on the value of every field of the current object.
+     */
+    private static void readObject(JsonParser parser, FieldReader fieldReader) throws IOException
+    {
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            fieldReader.read(fieldName);
+        }
+    }
+
+    private static <T> List<T> readArray(JsonParser parser, ElementReader<T> elementReader) throws IOException
+    {
+        expect(parser, JsonToken.START_ARRAY);
+        List<T> elements = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY)
+        {
+            elements.add(elementReader.read(parser));
+        }
+        return elements;
+    }
+
+    private static void expect(JsonParser parser, JsonToken token) throws IOException
+    {
+        if (parser.getCurrentToken() != token)
+        {
+            throw new IOException("Unexpected JSON: expected " + token + " but was " + parser.getCurrentToken());
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldReader
+    {
+        void read(String fieldName) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<T>
+    {
+        T read(JsonParser parser) throws IOException;
+    }
+}
@@ -0,0 +1,20 @@
+package com.avides.gitlab.release;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Asset link of a release, e.g. to an artifact which is deployed to a repository manager.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GitlabReleaseLink
+{
+    private String name;
+
+    private String url;
+}
@@ -2,24 +2,47 @@ package com.avides.gitlab.release;
 
 import static java.util.Arrays.asList;
 
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.gitlab.api.GitlabAPI;
+import org.apache.maven.project.MavenProject;
+import org.gitlab.api.GitlabAPIException;
+import org.gitlab.api.Pagination;
 import org.gitlab.api.http.Query;
 import org.gitlab.api.models.GitlabCommit;
 import org.gitlab.api.models.GitlabProject;
+import org.gitlab.api.models.GitlabRelease;
 import org.gitlab.api.models.GitlabTag;
 
 import lombok.AccessLevel;
@@ -35,13 +58,15 @@ import lombok.Setter;
  * <p>
  * The release tag description is the commit history from the last commit until the last created release tag (no pre release tags e.g 0.1.0-SNAPSHOT).
  */
-@Mojo(name = "release")
+@Mojo(name = "release", threadSafe = true)
 @Getter
 @Setter
 public class GitlabReleaseMojo extends AbstractMojo
 {
     private static final List<String> PRE_RELEASE_INDICATOR = asList("SNAPSHOT", "ALPHA", "BETA", "RC", "M", "BUILD_SNAPSHOT");
 
+    private static final int[] RELEASES_API_VERSION = { 11, 7 };
+
     @Parameter(defaultValue = "https://gitlab.com")
     private String gitlabHost;
 
@@ -66,17 +91,92 @@ public class GitlabReleaseMojo extends AbstractMojo
     @Parameter(defaultValue = "${gitlabBranchName}")
     private String gitlabBranchName;
 
-    @Setter(AccessLevel.NONE)
-    @Getter(AccessLevel.NONE)
-    private GitlabAPI gitlabAPI;
+    @Parameter(defaultValue = "true")
+    private boolean gitlabCompareApiDesired = true;
+
+    @Parameter(defaultValue = "100")
+    private int gitlabCommitsPerPage = Pagination.MAX_ITEMS_PER_PAGE;
+
+    @Parameter(defaultValue = "false")
+    private boolean gitlabReleaseAtEnd;
+
+    @Parameter(defaultValue = "3")
+    private int gitlabParallelism = 3;
+
+    @Parameter(defaultValue = "false")
+    private boolean gitlabOptimisticTagging;
+
+    @Parameter(defaultValue = "10000")
+    private int gitlabConnectTimeout = 10000;
+
+    @Parameter(defaultValue = "60000")
+    private int gitlabReadTimeout = 60000;
+
+    @Parameter(defaultValue = "3")
+    private int gitlabMaxRetries = 3;
+
+    @Parameter(defaultValue = "500")
+    private long gitlabRetryBackoff = 500;
+
+    @Parameter(defaultValue = "300000")
+    private long gitlabTimeout = 300000;
+
+    @Parameter(defaultValue = "5")
+    private int gitlabCircuitBreakerThreshold = 5;
+
+    @Parameter(defaultValue = "false")
+    private boolean gitlabSkipWhenUnavailable;
+
+    @Parameter(defaultValue = "${user.home}/.m2/gitlab-release-cache")
+    private File gitlabCacheDirectory;
+
+    @Parameter(defaultValue = "false")
+    private boolean gitlabLocalHistory;
+
+    @Parameter(defaultValue = "false")
+    private boolean gitlabReleasesApiDesired;
+
+    @Parameter
+    private List<GitlabReleaseLink> gitlabReleaseLinks;
+
+    @Parameter(property = "gitlabAsync", defaultValue = "false")
+    private boolean gitlabAsync;
+
+    @Parameter(property = "gitlabSpoolDirectory")
+    private File gitlabSpoolDirectory;
+
+    @Parameter(property = "gitlabModulePath")
+    private String gitlabModulePath;
+
+    @Parameter(property = "gitlabReleaseNoteMaxCommits", defaultValue = "1000")
+    private int gitlabReleaseNoteMaxCommits = 1000;
+
+    @Parameter(property = "gitlabReleaseNoteMaxBytes", defaultValue = "1000000")
+    private int gitlabReleaseNoteMaxBytes = 1000000;
+
+    @Parameter(property = "gitlabReportFile", defaultValue = "${project.build.directory}/gitlab-release-report.json")
+    private File gitlabReportFile;
+
+    @Parameter(property = "gitlabCassetteMode")
+    private CassetteTransport.Mode gitlabCassetteMode;
 
-    @Setter(AccessLevel.NONE)
-    @Getter(AccessLevel.NONE)
-    private List<GitlabCommit> lastCommits;
+    @Parameter(property = "gitlabCassetteFile", defaultValue = "${project.build.directory}/gitlab-cassette.jsonl")
+    private File gitlabCassetteFile;
 
-    @Setter(AccessLevel.NONE)
-    @Getter(AccessLevel.NONE)
-    private List<GitlabTag> lastTags;
+    @Parameter(property = "gitlabCassetteLatency", defaultValue = "false")
+    private boolean gitlabCassetteLatency;
+
+    @Parameter(property = "gitlabDryRun", defaultValue = "false")
+    private boolean gitlabDryRun;
+
+    @Parameter(defaultValue = "${project.basedir}", readonly = true)
+    private File projectBaseDirectory;
+
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+    private MojoExecution mojoExecution;
 
     /**
      * Execute the gitlab release maven plugin.
@@ -85,15 +185,77 @@ public class GitlabReleaseMojo extends AbstractMojo
      */
     public void execute() throws MojoExecutionException
     {
+        if (gitlabAsync && gitlabSpoolDirectory == null)
+        {
+            getLog().error("Failed to spool release -> Please define 'gitlabSpoolDirectory' in your POM when 'gitlabAsync' is enabled.");
+            throw new MojoExecutionException("Failed to spool release: no spool directory defined");
+        }
+
+        Deadline deadline = Deadline.after(gitlabTimeout);
+
         if (canResolveGitlabRepositoryNamespace())
         {
-            resolveGitlabSourceBranch();
-            release();
+            String namespace = resolveGitlabRepositoryNamespace();
+            release(createContext(namespace, gitlabRepositoryName, projectVersion, resolveModulePath(), projectBaseDirectory, true, deadline));
         }
         else
         {
             getLog().warn("Gitlab repository namespace not found -> Please define 'scm.url' or 'gitlabRepositoryNamespace' in your POM.");
         }
+
+        if (gitlabReleaseAtEnd && isLastProjectInReactor())
+        {
+            releaseDeferred(GitlabSessionCache.of(session).drainDeferredReleases(), deadline);
+        }
+    }
+
+    /**
+     * Creates the context of a release.
+     *
+     * @param namespace the namespace of the repository
+     * @param name the name of the repository
+     * @param version the released version
+     * @param modulePath the path which filters the commits of the release note (may be <code>null</code>)
+     * @param baseDirectory the base directory of the module (may be <code>null</code>)
+     * @param module <code>false</code> if the repository is released without a module of the build
+     * @param deadline the deadline of the release
+     * @return the context
+     */
+    ReleaseContext createContext(String namespace, String name, String version, String modulePath, File baseDirectory, boolean module, Deadline deadline)
+    {
+        return new ReleaseContext(namespace, name, version, resolveGitlabSourceBranch(), modulePath, baseDirectory, module, deadline)
+                .withReportFile(gitlabReportFile);
+    }
+
+    /**
+     * Releases the repository of the context.
+     *
+     * @param context the context of the release
+     * @return the outcome of the release
+     * @throws MojoExecutionException If the release failed
+     */
+    ReleaseOutcome release(ReleaseContext context) throws MojoExecutionException
+    {
+        if (!gitlabPreReleaseDesired && isPreRelease(context.getVersion()))
+        {
+            getLog().info("Don't add new tag for a pre-release: " + context.getVersion());
+            return ReleaseOutcome.SKIPPED;
+        }
+
+        if (gitlabDryRun)
+        {
+            // the plan is resolved immediately, neither spooled nor deferred
+            return releaseNow(context);
+        }
+        if (gitlabAsync && context.isModule())
+        {
+            return spoolRelease(context);
+        }
+        if (gitlabReleaseAtEnd && context.isModule())
+        {
+            return releaseAtEnd(context);
+        }
+        return releaseNow(context);
     }
 
     private boolean canResolveGitlabRepositoryNamespace()
@@ -101,53 +263,379 @@ public class GitlabReleaseMojo extends AbstractMojo
         return StringUtils.isNotBlank(gitlabRepositoryNamespace) || StringUtils.isNotBlank(projectScmUrl);
     }
 
-    private void resolveGitlabSourceBranch()
+    private String resolveGitlabSourceBranch()
     {
         if (StringUtils.isBlank(gitlabBranchName))
         {
             getLog().info("Using branch 'master' as default");
-            gitlabBranchName = "master";
+            return "master";
         }
+        return gitlabBranchName;
     }
 
-    private void release() throws MojoExecutionException
+    /**
+     * Registers the release for the end of the reactor build, so the GitLab requests do not block the build of the remaining modules. The releases
+     * of all modules are created together by the last module of the reactor and every repository and version is only released once. Only the
+     * context of the release is kept until then, so the releases are created with the GitLab configuration of the last module.
+     */
+    private ReleaseOutcome releaseAtEnd(ReleaseContext context)
     {
-        if (gitlabPreReleaseDesired || !isPreRelease())
+        String releaseKey = gitlabHost + "/" + context.getNamespace() + "/" + context.getName() + ":" + context.getVersion();
+
+        if (GitlabSessionCache.of(session).addDeferredRelease(releaseKey, context))
         {
-            resolveGitlabRepositoryNamespace();
-            connectToGitlab();
-            createReleaseTag();
+            getLog().info("Deferring release " + context.getVersion() + " to the end of the build");
+
+            if (session != null && session.getRequest() != null && !MavenExecutionRequest.REACTOR_FAIL_FAST.equals(session.getRequest().getReactorFailureBehavior()))
+            {
+                getLog().warn("Release " + context.getVersion() + " is not created if a failed module prevents the last module from executing the goal -> "
+                        + "Please don't combine 'gitlabReleaseAtEnd' with --fail-at-end or --fail-never.");
+            }
         }
-        else
+        return ReleaseOutcome.DEFERRED;
+    }
+
+    /**
+     * Creates the release tag. If GitLab is unreachable and a spool directory is configured, the release is spooled instead of failing the build.
+     */
+    private ReleaseOutcome releaseNow(ReleaseContext context) throws MojoExecutionException
+    {
+        ReleaseOutcome unavailableOutcome = checkGitlabAvailable(context);
+        if (unavailableOutcome != null)
+        {
+            return unavailableOutcome;
+        }
+
+        long start = System.nanoTime();
+        ReleaseOutcome outcome = null;
+        try
+        {
+            outcome = createReleaseTag(connectToGitlab(context));
+            return outcome;
+        }
+        catch (MojoExecutionException e)
+        {
+            if (gitlabDryRun || !isSpoolingPossible(context) || !isGitlabUnreachable(e))
+            {
+                throw e;
+            }
+            getLog().warn("Gitlab " + gitlabHost + " is unreachable -> Spooling release " + context.getVersion());
+            outcome = spoolRelease(context);
+            return outcome;
+        }
+        finally
+        {
+            reportRequests(context, outcome, (System.nanoTime() - start) / 1000000);
+        }
+    }
+
+    /**
+     * Logs the GitLab requests of the release as table per endpoint and writes them to the report file of the module.
+     *
+     * @param outcome the outcome of the release, <code>null</code> if the release failed
+     */
+    private void reportRequests(ReleaseContext context, ReleaseOutcome outcome, long millis)
+    {
+        ReleaseReport report = context.getReport();
+        if (report.getRequests().isEmpty())
+        {
+            return;
+        }
+
+        getLog().info("Gitlab requests of release " + context.getVersion() + " (" + millis + " ms):");
+        report.formatSummary().forEach(getLog()::info);
+
+        File reportFile = context.getReportFile();
+        if (reportFile != null && context.isModule())
+        {
+            Map<String, Object> release = new LinkedHashMap<>();
+            release.put("host", gitlabHost);
+            release.put("repository", context.getNamespace() + "/" + context.getName());
+            release.put("version", context.getVersion());
+            release.put("outcome", outcome != null ? outcome.name() : "FAILED");
+            release.put("millis", Long.valueOf(millis));
+            try
+            {
+                report.write(reportFile.toPath(), release);
+                getLog().info("Wrote gitlab request report to " + reportFile);
+            }
+            catch (IOException e)
+            {
+                getLog().warn("Failed to write gitlab request report to " + reportFile, e);
+            }
+        }
+    }
+
+    private boolean isSpoolingPossible(ReleaseContext context)
+    {
+        return gitlabSpoolDirectory != null && context.isModule();
+    }
+
+    /**
+     * Connection failures, timeouts, an open circuit, rate limits and server errors make GitLab unreachable, but not the rejection of a request.
+     */
+    private static boolean isGitlabUnreachable(Throwable throwable)
+    {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof GitlabAPIException)
+            {
+                int responseCode = ((GitlabAPIException) cause).getResponseCode();
+                return responseCode == 429 || responseCode >= 500;
+            }
+            if (cause instanceof FileNotFoundException)
+            {
+                return false;
+            }
+            if (cause instanceof IOException)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the release request to the spool directory, it is created later by the <code>flush</code> goal. The head commit and the release note
+     * are read from the local git repository, so GitLab is not requested at all.
+     */
+    private ReleaseOutcome spoolRelease(ReleaseContext context) throws MojoExecutionException
+    {
+        try (LocalGitHistory localGitHistory = LocalGitHistory.open(context.getBaseDirectory()))
+        {
+            if (localGitHistory.isTagExisting(context.getVersion()))
+            {
+                getLog().info("Tag already exists for version: " + context.getVersion());
+                return ReleaseOutcome.ALREADY_RELEASED;
+            }
+
+            Path file = new ReleaseSpool(gitlabSpoolDirectory.toPath()).add(readLocalHistory(context, localGitHistory));
+            getLog().info("Spooled release " + context.getVersion() + " to " + file + " -> Run the 'flush' goal to create it");
+            return ReleaseOutcome.SPOOLED;
+        }
+        catch (IOException e)
+        {
+            getLog().error("Failed to spool release", e);
+            throw new MojoExecutionException("Failed to spool release", e);
+        }
+    }
+
+    /**
+     * Only the last module of the reactor which executes this goal creates the deferred releases. Modules of a parallel build may finish in any
+     * order, so there the module which finishes last creates them.
+     */
+    private boolean isLastProjectInReactor()
+    {
+        if (session == null || session.getProjects() == null || session.getProjects().isEmpty())
+        {
+            return true;
+        }
+
+        List<MavenProject> projects = resolveReleasingProjects();
+        if (session.isParallel() || (session.getRequest() != null && session.getRequest().getDegreeOfConcurrency() > 1))
+        {
+            return GitlabSessionCache.of(session).markProjectFinished(session.getCurrentProject()) >= projects.size();
+        }
+        return projects.isEmpty() || projects.get(projects.size() - 1).equals(session.getCurrentProject());
+    }
+
+    /**
+     * Resolves the projects of the reactor which execute this goal. A goal of the command line is executed by all projects, a goal of the lifecycle
+     * only by the projects which declare its execution (e.g. not by a parent without the plugin), so they do not wait for a module which never
+     * creates the deferred releases.
+     */
+    private List<MavenProject> resolveReleasingProjects()
+    {
+        List<MavenProject> projects = session.getProjects();
+        if (mojoExecution == null || mojoExecution.getSource() == MojoExecution.Source.CLI)
+        {
+            return projects;
+        }
+
+        String pluginKey = Plugin.constructKey(mojoExecution.getGroupId(), mojoExecution.getArtifactId());
+        List<MavenProject> releasingProjects = new ArrayList<>();
+        for (MavenProject project : projects)
         {
-            getLog().info("Don't add new tag for a pre-release: " + projectVersion);
+            if (project.equals(session.getCurrentProject()) || isExecuting(project.getPlugin(pluginKey)))
+            {
+                releasingProjects.add(project);
+            }
         }
+        return releasingProjects;
     }
 
-    private void resolveGitlabRepositoryNamespace()
+    private boolean isExecuting(Plugin plugin)
+    {
+        if (plugin == null)
+        {
+            return false;
+        }
+
+        PluginExecution execution = plugin.getExecutionsAsMap().get(mojoExecution.getExecutionId());
+        return execution != null && execution.getGoals().contains(mojoExecution.getGoal());
+    }
+
+    private void releaseDeferred(List<ReleaseContext> deferredReleases, Deadline deadline) throws MojoExecutionException
+    {
+        if (deferredReleases.isEmpty())
+        {
+            return;
+        }
+
+        getLog().info("Creating " + deferredReleases.size() + " deferred release(s)...");
+
+        MojoExecutionException failure = null;
+        for (ReleaseContext deferredRelease : deferredReleases)
+        {
+            try
+            {
+                releaseNow(deferredRelease.withDeadline(deadline));
+            }
+            catch (MojoExecutionException e)
+            {
+                failure = failure != null ? failure : e;
+            }
+        }
+
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    private String resolveGitlabRepositoryNamespace()
     {
         if (StringUtils.isBlank(gitlabRepositoryNamespace) && StringUtils.isNotBlank(projectScmUrl))
         {
-            gitlabRepositoryNamespace = projectScmUrl.replace(gitlabHost, "");
-            gitlabRepositoryNamespace = gitlabRepositoryNamespace.startsWith("/") ? gitlabRepositoryNamespace.replaceFirst("/", "") : gitlabRepositoryNamespace;
-            gitlabRepositoryNamespace = gitlabRepositoryNamespace.substring(0, gitlabRepositoryNamespace.indexOf('/'));
-            getLog().info("Resolved namespace: " + gitlabRepositoryNamespace);
+            String namespace = projectScmUrl.replace(gitlabHost, "");
+            namespace = namespace.startsWith("/") ? namespace.replaceFirst("/", "") : namespace;
+            namespace = namespace.substring(0, namespace.indexOf('/'));
+            getLog().info("Resolved namespace: " + namespace);
+            return namespace;
         }
+        return gitlabRepositoryNamespace;
     }
 
-    private void connectToGitlab()
+    /**
+     * Resolves the path which filters the commits of the release note, by default the directory of the module relative to the root of the git
+     * repository. The root module and a path of <code>/</code> are not filtered.
+     *
+     * @return the path or <code>null</code> if the commits are not filtered
+     */
+    String resolveModulePath()
+    {
+        String modulePath = null;
+        if (gitlabModulePath != null)
+        {
+            String path = StringUtils.strip(gitlabModulePath.trim().replace('\\', '/'), "/");
+            modulePath = path.isEmpty() || ".".equals(path) ? null : path;
+        }
+        else if (projectBaseDirectory != null)
+        {
+            try
+            {
+                modulePath = LocalGitHistory.findRelativePath(projectBaseDirectory);
+            }
+            catch (IOException e)
+            {
+                getLog().warn("Failed to resolve module path -> Release note contains the commits of the whole repository", e);
+            }
+        }
+
+        if (modulePath != null)
+        {
+            getLog().info("Resolved module path: " + modulePath);
+        }
+        return modulePath;
+    }
+
+    /**
+     * Checks the circuit breaker of the host, which is opened by consecutive failures of previous modules.
+     *
+     * @return <code>null</code> if GitLab is available, otherwise the outcome of the skipped or spooled release
+     * @throws MojoExecutionException If the circuit is open and the release is neither skipped nor spooled
+     */
+    private ReleaseOutcome checkGitlabAvailable(ReleaseContext context) throws MojoExecutionException
+    {
+        CircuitBreaker circuitBreaker = GitlabSessionCache.of(session).getCircuitBreaker(gitlabHost, gitlabCircuitBreakerThreshold);
+        if (!circuitBreaker.isOpen())
+        {
+            return null;
+        }
+
+        String message = "Gitlab " + gitlabHost + " is unavailable after " + circuitBreaker.getConsecutiveFailures() + " consecutive failures";
+        if (isSpoolingPossible(context))
+        {
+            getLog().warn(message + " -> Spooling release " + context.getVersion());
+            return spoolRelease(context);
+        }
+        if (gitlabSkipWhenUnavailable)
+        {
+            getLog().warn(message + " -> Skipping release " + context.getVersion());
+            return ReleaseOutcome.SKIPPED;
+        }
+
+        getLog().error(message);
+        throw new MojoExecutionException(message);
+    }
+
+    private ReleaseContext connectToGitlab(ReleaseContext context)
+    {
+        CachedGitlabRepository repository = connectRepository(context.getNamespace(), context.getName());
+        GitlabTransport transport = new InstrumentingTransport(repository.getTransport(), context.getReport());
+        return context.connect(repository, GitlabClient.connect(transport, context.getDeadline()));
+    }
+
+    /**
+     * Returns the repository of the session or creates it if the repository is requested for the first time.
+     */
+    CachedGitlabRepository connectRepository(String namespace, String name)
+    {
+        return GitlabSessionCache.of(session).getRepository(gitlabHost, gitlabAccessToken, namespace, name, this::createTransport);
+    }
+
+    /**
+     * Returns the transport of the session or connects to GitLab if the host is requested for the first time.
+     */
+    GitlabTransport connectTransport()
+    {
+        return GitlabSessionCache.of(session).getTransport(gitlabHost, gitlabAccessToken, this::createTransport);
+    }
+
+    private GitlabTransport createTransport()
     {
         getLog().info("Connecting to gitlab...");
-        gitlabAPI = GitlabAPI.connect(gitlabHost, gitlabAccessToken);
-        getLog().info("Connected to gitlab: " + gitlabAPI.getHost());
+        GitlabTransport transport = new UrlConnectionTransport(gitlabHost, gitlabAccessToken, gitlabConnectTimeout, gitlabReadTimeout);
+        if (gitlabCassetteMode != null)
+        {
+            // the cassette keeps the complete responses, so the cache is bypassed
+            getLog().info("Using gitlab cassette: " + gitlabCassetteFile + " (" + gitlabCassetteMode + ")");
+            transport = new CassetteTransport(transport, gitlabCassetteMode, gitlabCassetteFile.toPath(), gitlabAccessToken, gitlabCassetteLatency);
+        }
+        else if (gitlabCacheDirectory != null)
+        {
+            transport = new CachingTransport(transport, gitlabCacheDirectory.toPath(), gitlabHost, gitlabAccessToken, getLog());
+        }
+        transport = new RetryingTransport(transport, gitlabMaxRetries, gitlabRetryBackoff, getLog());
+        transport = new CircuitBreakerTransport(transport, GitlabSessionCache.of(session).getCircuitBreaker(gitlabHost, gitlabCircuitBreakerThreshold));
+        getLog().info("Connected to gitlab: " + gitlabHost);
+        return transport;
     }
 
-    private GitlabProject resolveProject() throws MojoExecutionException
+    GitlabProject resolveProject(CachedGitlabRepository cachedRepository, GitlabClient client, String namespace, String name) throws MojoExecutionException
     {
         try
         {
+            GitlabProject project = cachedRepository.getProject();
+            if (project != null)
+            {
+                getLog().info("Reusing repository: " + project.getNameWithNamespace());
+                return project;
+            }
+
             getLog().info("Resolving repository...");
-            GitlabProject project = gitlabAPI.getProject(gitlabRepositoryNamespace, gitlabRepositoryName);
+            project = client.getProject(namespace, name);
+            cachedRepository.setProject(project);
             getLog().info("Resolved repository: " + project.getNameWithNamespace());
             return project;
         }
@@ -158,23 +646,45 @@ public class GitlabReleaseMojo extends AbstractMojo
         }
     }
 
-    private GitlabCommit resolveLatestCommitOnBranch(Integer projectId, String since) throws MojoExecutionException
+    private String resolveBranchHead(ReleaseContext context, Integer projectId) throws MojoExecutionException
     {
         try
         {
-            getLog().info("Resolving latest commits on " + gitlabBranchName + "...");
+            getLog().info("Resolving head of " + context.getBranchName() + "...");
+            String headCommitId = context.getClient().getBranch(projectId, context.getBranchName()).getCommit().getId();
+            getLog().info("Resolved head of " + context.getBranchName() + ": " + headCommitId);
+            return headCommitId;
+        }
+        catch (IOException e)
+        {
+            getLog().error("Failed to resolve branch head", e);
+            throw new MojoExecutionException("Failed to resolve branch head", e);
+        }
+    }
 
-            lastCommits = new ArrayList<>(asList(gitlabAPI.retrieve().to(buildLatestCommitOnBranchUrl(projectId, since), GitlabCommit[].class)));
+    /**
+     * @return the release note
+     */
+    String resolveLatestCommitsOnBranch(ReleaseContext context, Integer projectId, GitlabTag lastReleaseTag, String headCommitId)
+            throws MojoExecutionException
+    {
+        try
+        {
+            getLog().info("Resolving latest commits on " + context.getBranchName() + "...");
+
+            ReleaseNote releaseNote = new ReleaseNote(gitlabReleaseNoteMaxCommits, gitlabReleaseNoteMaxBytes);
 
-            // remove the commit of the last release if necessary
-            if (since != null && lastCommits.size() > 1)
+            if (context.getModulePath() != null)
             {
-                lastCommits.remove(lastCommits.size() - 1);
+                resolveCommitsOfModule(context, projectId, lastReleaseTag, headCommitId, releaseNote);
+            }
+            else if (!gitlabCompareApiDesired || lastReleaseTag == null || !resolveCommitsSinceTag(context, projectId, lastReleaseTag, headCommitId, releaseNote))
+            {
+                resolveCommitsSinceDate(context, projectId, lastReleaseTag, headCommitId, releaseNote);
             }
 
-            getLog().info("Resolved latest commits on " + gitlabBranchName);
-
-            return lastCommits.get(0);
+            getLog().info("Resolved latest commits on " + context.getBranchName());
+            return finishReleaseNote(releaseNote);
         }
         catch (IOException e)
         {
@@ -183,61 +693,432 @@ public class GitlabReleaseMojo extends AbstractMojo
         }
     }
 
-    private String buildLatestCommitOnBranchUrl(Integer projectId, String since) throws UnsupportedEncodingException
+    /**
+     * Resolves the exact commit range between the last release tag and the branch head with a single compare request. GitLab answers a comparison
+     * which timed out without commits, so an empty comparison is resolved by date as well.
+     *
+     * @return <code>false</code> if the comparison failed or returned no commits
+     */
+    private boolean resolveCommitsSinceTag(ReleaseContext context, Integer projectId, GitlabTag lastReleaseTag, String headCommitId, ReleaseNote releaseNote)
+    {
+        try
+        {
+            List<GitlabCommit> commits = new ArrayList<>(context.getClient().compareCommits(projectId, lastReleaseTag.getCommit().getId(), headCommitId).getCommits());
+            if (commits.isEmpty())
+            {
+                getLog().warn("No commits found by comparing " + lastReleaseTag.getName() + " with " + context.getBranchName()
+                        + " -> Falling back to date based commit resolution");
+                return false;
+            }
+            // the compare api lists the oldest commit first
+            Collections.reverse(commits);
+            commits.forEach(releaseNote::append);
+            return true;
+        }
+        catch (IOException e)
+        {
+            getLog().warn("Failed to compare " + lastReleaseTag.getName() + " with " + context.getBranchName() + " -> Falling back to date based commit resolution", e);
+            return false;
+        }
+    }
+
+    /**
+     * Streams the commits since the last release page by page into the release note, so only a single page is held in memory.
+     */
+    private void resolveCommitsSinceDate(ReleaseContext context, Integer projectId, GitlabTag lastReleaseTag, String headCommitId, ReleaseNote releaseNote)
+            throws IOException
+    {
+        String since = lastReleaseTag != null ? toIsoDateTime(lastReleaseTag.getCommit().getCommittedDate()) : null;
+        String lastReleaseCommitId = lastReleaseTag != null ? lastReleaseTag.getCommit().getId() : null;
+
+        Iterator<GitlabCommit[]> pages = context.getClient().asIterator(buildLatestCommitOnBranchUrl(projectId, headCommitId, since, null), GitlabCommit[].class);
+        appendCommits(pages, releaseNote, commit -> lastReleaseCommitId == null || !lastReleaseCommitId.equals(commit.getId()));
+    }
+
+    /**
+     * Streams the commits since the last release which touch the module path into the release note. The compare API can not filter by path, so the
+     * commit range is requested from the commits API, which filters the commits by the path on the server.
+     */
+    private void resolveCommitsOfModule(ReleaseContext context, Integer projectId, GitlabTag lastReleaseTag, String headCommitId, ReleaseNote releaseNote)
+            throws IOException
+    {
+        String ref = lastReleaseTag != null ? lastReleaseTag.getCommit().getId() + ".." + headCommitId : headCommitId;
+
+        Iterator<GitlabCommit[]> pages = context.getClient().asIterator(buildLatestCommitOnBranchUrl(projectId, ref, null, context.getModulePath()), GitlabCommit[].class);
+        appendCommits(pages, releaseNote, commit -> true);
+    }
+
+    /**
+     * Appends the commits page by page until the release note is full. The pages are requested lazily, so the remaining pages are not fetched.
+     *
+     * @param included decides whether a commit is part of the release note (e.g. not the commit of the last release)
+     */
+    private static void appendCommits(Iterator<GitlabCommit[]> pages, ReleaseNote releaseNote, Predicate<GitlabCommit> included) throws IOException
+    {
+        try
+        {
+            while (!releaseNote.isFull() && pages.hasNext())
+            {
+                for (GitlabCommit commit : pages.next())
+                {
+                    if (included.test(commit))
+                    {
+                        releaseNote.append(commit);
+                    }
+                }
+            }
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+
+        if (releaseNote.isFull() && pages.hasNext())
+        {
+            releaseNote.markMoreCommitsOmitted();
+        }
+    }
+
+    /**
+     * The pages are followed by the <code>X-Next-Page</code> header, so the URL contains no page.
+     */
+    private String buildLatestCommitOnBranchUrl(Integer projectId, String ref, String since, String path) throws UnsupportedEncodingException
     {
         Query query = new Query();
-        query.append("ref_name", gitlabBranchName);
+        query.append("ref_name", ref);
 
         if (since != null)
         {
             query.append("since", since);
         }
 
+        if (path != null)
+        {
+            query.append("path", path);
+        }
+
+        query.append(Pagination.PARAM_PER_PAGE, String.valueOf(Math.max(1, Math.min(gitlabCommitsPerPage, Pagination.MAX_ITEMS_PER_PAGE))));
+
         return GitlabProject.URL + "/" + projectId + "/repository" + GitlabCommit.URL + query;
     }
 
-    private void createReleaseTag() throws MojoExecutionException
+    /**
+     * Creates the release tag. As soon as the project is resolved, the independent requests (tag existence, last release tag and branch head) are
+     * executed concurrently.
+     * <p>
+     * With optimistic tagging the tag existence is not requested in advance. The tag is added directly and the rejection of GitLab is treated as an
+     * already existing tag, so concurrent releases of the same version can not race between the check and the creation.
+     * <p>
+     * With the local history the commits are read from the local git repository and GitLab is only requested to add the tag.
+     * <p>
+     * The releases of the same repository and version within the session are executed one after another, so the modules of a parallel build which
+     * wait for the first one find its tag as existing tag.
+     */
+    private ReleaseOutcome createReleaseTag(ReleaseContext context) throws MojoExecutionException
     {
-        GitlabProject project = resolveProject();
+        Lock releaseLock = context.getRepository().getReleaseLock(context.getVersion());
+        lockRelease(context, releaseLock);
+        try
+        {
+            return createReleaseTagOfVersion(context);
+        }
+        finally
+        {
+            releaseLock.unlock();
+        }
+    }
 
-        if (!isTagForProjectVersionAlreadyExists(project))
+    /**
+     * Waits until no other module of the session releases the same repository and version, but not longer than the deadline of the release.
+     */
+    private void lockRelease(ReleaseContext context, Lock releaseLock) throws MojoExecutionException
+    {
+        try
         {
-            addTag(project, resolveLatestCommitOnBranch(project.getId(), getLastReleaseTagCreated()));
+            if (releaseLock.tryLock(context.getDeadline().getRemainingMillis(), TimeUnit.MILLISECONDS))
+            {
+                return;
+            }
         }
-        else
+        catch (InterruptedException e)
         {
-            getLog().info("Tag already exists for version: " + projectVersion);
+            Thread.currentThread().interrupt();
         }
+
+        String message = "Failed to wait for the concurrent release of version " + context.getVersion();
+        getLog().error(message);
+        throw new MojoExecutionException(message);
     }
 
-    private String getLastReleaseTagCreated()
+    private ReleaseOutcome createReleaseTagOfVersion(ReleaseContext context) throws MojoExecutionException
     {
-        GitlabTag gitlabTag = lastTags.stream().filter(tag ->
+        CachedGitlabRepository repository = context.getRepository();
+        GitlabProject project = resolveProject(repository, context.getClient(), context.getNamespace(), context.getName());
+
+        if (repository.isTagExisting(context.getVersion()))
         {
-            String tagName = tag.getName().toUpperCase();
-            return PRE_RELEASE_INDICATOR.stream().noneMatch(tagName::endsWith);
-        }).findFirst().orElse(null);
-        return gitlabTag != null ? toLocalDateTime(gitlabTag.getCommit().getCommittedDate()).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+            getLog().info("Tag already exists for version: " + context.getVersion());
+            return ReleaseOutcome.ALREADY_RELEASED;
+        }
+
+        if (gitlabLocalHistory && context.isModule())
+        {
+            return createReleaseTagFromLocalHistory(context, project);
+        }
+
+        Integer projectId = project.getId();
+
+        try (ConcurrentRequests requests = new ConcurrentRequests(resolvePreflightParallelism()))
+        {
+            // a dry run does not learn about an existing tag from the rejection of GitLab, so it always looks up the tag
+            ConcurrentRequests.Result<Boolean> tagExisting = gitlabOptimisticTagging && !gitlabDryRun ? () -> Boolean.FALSE
+                    : requests.submit(() -> Boolean.valueOf(isTagForProjectVersionAlreadyExists(context, project, projectId)));
+            ConcurrentRequests.Result<GitlabTag> lastReleaseTag = requests.submit(() -> getLastReleaseTagCreated(context, projectId));
+            ConcurrentRequests.Result<String> headCommitId = requests.submit(() -> resolveBranchHead(context, projectId));
+
+            if (tagExisting.get().booleanValue())
+            {
+                getLog().info("Tag already exists for version: " + context.getVersion());
+                return ReleaseOutcome.ALREADY_RELEASED;
+            }
+
+            String releaseNote = resolveLatestCommitsOnBranch(context, projectId, lastReleaseTag.get(), headCommitId.get());
+            return addTag(repository, context.getClient(), project, createReleaseRequest(context, headCommitId.get(), releaseNote), gitlabOptimisticTagging);
+        }
     }
 
-    private boolean isTagForProjectVersionAlreadyExists(GitlabProject project)
+    /**
+     * @return the number of threads which resolve the tag, the last release and the branch head of a single release concurrently
+     */
+    int resolvePreflightParallelism()
     {
-        lastTags = gitlabAPI.getTags(project);
-        return lastTags.stream().anyMatch(tag -> projectVersion.equals(tag.getName()));
+        return gitlabParallelism;
     }
 
-    private boolean isPreRelease()
+    private ReleaseOutcome createReleaseTagFromLocalHistory(ReleaseContext context, GitlabProject project) throws MojoExecutionException
     {
-        return PRE_RELEASE_INDICATOR.stream().anyMatch(indicator -> projectVersion.toUpperCase().contains(indicator));
+        ReleaseRequest request;
+        try (LocalGitHistory localGitHistory = LocalGitHistory.open(context.getBaseDirectory()))
+        {
+            if (localGitHistory.isTagExisting(context.getVersion()))
+            {
+                context.getRepository().addExistingTag(context.getVersion());
+                getLog().info("Tag already exists for version: " + context.getVersion());
+                return ReleaseOutcome.ALREADY_RELEASED;
+            }
+
+            request = readLocalHistory(context, localGitHistory);
+        }
+        catch (IOException e)
+        {
+            getLog().error("Failed to read local history", e);
+            throw new MojoExecutionException("Failed to read local history", e);
+        }
+
+        if (gitlabDryRun && isTagForProjectVersionAlreadyExists(context, project, project.getId()))
+        {
+            getLog().info("Tag already exists for version: " + context.getVersion());
+            return ReleaseOutcome.ALREADY_RELEASED;
+        }
+
+        // the local history does not know the tags which are not fetched
+        return addTag(context.getRepository(), context.getClient(), project, request, true);
+    }
+
+    /**
+     * Reads the head commit of the branch and the commits since the last release tag of the local history. Like GitLab the head of the branch is
+     * tagged, which is the fetched state of the branch and not necessarily the checked out commit.
+     *
+     * @return the release request of the head commit
+     */
+    private ReleaseRequest readLocalHistory(ReleaseContext context, LocalGitHistory localGitHistory) throws IOException
+    {
+        getLog().info("Resolving latest commits from local history...");
+        ReleaseNote releaseNote = new ReleaseNote(gitlabReleaseNoteMaxCommits, gitlabReleaseNoteMaxBytes);
+        String headCommitId = localGitHistory.resolveHead(context.getBranchName());
+        String lastReleaseTagName = localGitHistory.walkCommitsSinceLastRelease(headCommitId, GitlabReleaseMojo::isReleaseTag, context.getModulePath(),
+                commit ->
+                {
+                    GitlabCommit gitlabCommit = new GitlabCommit();
+                    gitlabCommit.setId(commit.getName());
+                    gitlabCommit.setTitle(commit.getShortMessage());
+                    releaseNote.append(gitlabCommit);
+                });
+        getLog().info("Resolved latest commits from local history since " + (lastReleaseTagName != null ? lastReleaseTagName : "the first commit"));
+        return createReleaseRequest(context, headCommitId, finishReleaseNote(releaseNote));
     }
 
-    private void addTag(GitlabProject project, GitlabCommit commit) throws MojoExecutionException
+    GitlabTag getLastReleaseTagCreated(ReleaseContext context, Integer projectId) throws MojoExecutionException
     {
         try
         {
-            getLog().info("Adding tag...");
-            GitlabTag gitlabTag = gitlabAPI.addTag(project, projectVersion, commit.getId(), "", getReleaseNote());
-            getLog().info("Added tag: " + gitlabTag.getName());
+            CachedGitlabRepository repository = context.getRepository();
+            if (!repository.isLastReleaseTagResolved())
+            {
+                repository.setLastReleaseTag(findLastReleaseTag(context.getClient(), projectId));
+            }
+            return repository.getLastReleaseTag();
+        }
+        catch (IOException e)
+        {
+            getLog().error("Failed to resolve last release tag", e);
+            throw new MojoExecutionException("Failed to resolve last release tag", e);
+        }
+    }
+
+    /**
+     * Walks through the tags page by page (most recently updated first) and stops fetching as soon as the first release tag is found.
+     */
+    private static GitlabTag findLastReleaseTag(GitlabClient client, Integer projectId) throws IOException
+    {
+        try
+        {
+            Iterator<GitlabTag[]> pages = client.asIterator(buildTagsUrl(projectId), GitlabTag[].class);
+            while (pages.hasNext())
+            {
+                GitlabTag gitlabTag = Arrays.stream(pages.next()).filter(GitlabReleaseMojo::isReleaseTag).findFirst().orElse(null);
+                if (gitlabTag != null)
+                {
+                    return gitlabTag;
+                }
+            }
+            return null;
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    private static String buildTagsUrl(Integer projectId) throws UnsupportedEncodingException
+    {
+        Query query = new Query();
+        query.append("order_by", "updated");
+        query.append("sort", "desc");
+        query.append(Pagination.PARAM_PER_PAGE, String.valueOf(Pagination.MAX_ITEMS_PER_PAGE));
+
+        return GitlabProject.URL + "/" + projectId + GitlabTag.URL + query;
+    }
+
+    private static boolean isReleaseTag(GitlabTag tag)
+    {
+        return isReleaseTag(tag.getName());
+    }
+
+    static boolean isReleaseTag(String tagName)
+    {
+        String upperCaseTagName = tagName.toUpperCase();
+        return PRE_RELEASE_INDICATOR.stream().noneMatch(upperCaseTagName::endsWith);
+    }
+
+    boolean isTagForProjectVersionAlreadyExists(ReleaseContext context, GitlabProject project, Integer projectId)
+    {
+        CachedGitlabRepository repository = context.getRepository();
+        if (!repository.isTagExisting(context.getVersion()) && !isTagExisting(context, project, projectId))
+        {
+            return false;
+        }
+
+        repository.addExistingTag(context.getVersion());
+        return true;
+    }
+
+    /**
+     * If the tag can not be looked up by its name, all tags are scanned. The scanned tags also contain the last release tag, so it is remembered for
+     * the repository instead of walking through the tags again.
+     */
+    private boolean isTagExisting(ReleaseContext context, GitlabProject project, Integer projectId)
+    {
+        try
+        {
+            return findTag(context.getClient(), projectId, context.getVersion()) != null;
+        }
+        catch (IOException e)
+        {
+            getLog().warn("Failed to look up tag " + context.getVersion() + " by name -> Falling back to scanning all tags", e);
+            List<GitlabTag> tags = context.getClient().getTags(project);
+            if (tags.stream().anyMatch(tag -> context.getVersion().equals(tag.getName())))
+            {
+                return true;
+            }
+            if (!context.getRepository().isLastReleaseTagResolved())
+            {
+                context.getRepository().setLastReleaseTag(tags.stream().filter(GitlabReleaseMojo::isReleaseTag).findFirst().orElse(null));
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Looks up a single tag by its name instead of downloading the whole tag list.
+     *
+     * @return the tag or <code>null</code> if GitLab answers with 404
+     */
+    private static GitlabTag findTag(GitlabClient client, Integer projectId, String tagName) throws IOException
+    {
+        try
+        {
+            return client.get(GitlabProject.URL + "/" + projectId + GitlabTag.URL + "/" + URLEncoder.encode(tagName, "UTF-8"), GitlabTag.class);
+        }
+        catch (FileNotFoundException e)
+        {
+            return null;
+        }
+    }
+
+    static boolean isPreRelease(String version)
+    {
+        return PRE_RELEASE_INDICATOR.stream().anyMatch(indicator -> version.toUpperCase().contains(indicator));
+    }
+
+    /**
+     * Creates the release with the releases API if it is desired and supported by the GitLab version, otherwise the tag is added with the release
+     * description and the asset links are appended to the release note.
+     *
+     * <p>
+     * On a dry run nothing is written to GitLab, the planned request and the release note are logged instead.
+     *
+     * @param tagMayExist if <code>true</code>, the rejection of an already existing tag is treated as released
+     * @return {@link ReleaseOutcome#RELEASED}, {@link ReleaseOutcome#ALREADY_RELEASED} or {@link ReleaseOutcome#PLANNED}
+     */
+    ReleaseOutcome addTag(CachedGitlabRepository cachedRepository, GitlabClient client, GitlabProject project, ReleaseRequest request, boolean tagMayExist)
+            throws MojoExecutionException
+    {
+        try
+        {
+            boolean releasesApiSupported = isReleasesApiSupported(cachedRepository, client);
+            if (gitlabDryRun)
+            {
+                logPlannedRelease(project, request, releasesApiSupported);
+                return ReleaseOutcome.PLANNED;
+            }
+            if (releasesApiSupported)
+            {
+                getLog().info("Adding release...");
+                GitlabRelease gitlabRelease = client.createRelease(project, request.getVersion(), request.getCommitId(), request.getReleaseNote(), request.getLinks());
+                cachedRepository.addExistingTag(request.getVersion());
+                getLog().info("Added release: " + gitlabRelease.getTagName());
+                return ReleaseOutcome.RELEASED;
+            }
+            else
+            {
+                getLog().info("Adding tag...");
+                GitlabTag gitlabTag = client.addTag(project, request.getVersion(), request.getCommitId(), "", getReleaseNoteWithLinks(request));
+                cachedRepository.addExistingTag(request.getVersion());
+                getLog().info("Added tag: " + gitlabTag.getName());
+                return ReleaseOutcome.RELEASED;
+            }
+        }
+        catch (GitlabAPIException e)
+        {
+            if (!tagMayExist || !isTagAlreadyExistingError(e))
+            {
+                getLog().error("Failed to add tag", e);
+                throw new MojoExecutionException("Failed to add tag", e);
+            }
+            cachedRepository.addExistingTag(request.getVersion());
+            getLog().info("Tag already exists for version: " + request.getVersion());
+            return ReleaseOutcome.ALREADY_RELEASED;
         }
         catch (IOException e)
         {
@@ -246,17 +1127,104 @@ public class GitlabReleaseMojo extends AbstractMojo
         }
     }
 
-    private String getReleaseNote()
+    private void logPlannedRelease(GitlabProject project, ReleaseRequest request, boolean releasesApiSupported)
     {
-        StringBuilder builder = new StringBuilder();
-        lastCommits.stream()
-                .filter(commit -> !commit.getTitle().startsWith("Merge branch"))
-                .forEach(commit -> builder.append("* ").append(commit.getTitle()).append(" (").append(commit.getId()).append(")").append("\n"));
-        return builder.toString();
+        String releaseNote = releasesApiSupported ? request.getReleaseNote() : getReleaseNoteWithLinks(request);
+        String path = GitlabProject.URL + "/" + project.getId() + (releasesApiSupported ? "/releases" : GitlabTag.URL);
+        getLog().info("Dry run -> Not adding " + (releasesApiSupported ? "release" : "tag") + ", planned request: POST " + path + " (tag: "
+                + request.getVersion() + ", ref: " + request.getCommitId() + ", release note: " + releaseNote.getBytes(StandardCharsets.UTF_8).length
+                + " bytes)");
+        for (String line : releaseNote.split("\n"))
+        {
+            getLog().info("  " + line);
+        }
+    }
+
+    private String finishReleaseNote(ReleaseNote releaseNote)
+    {
+        if (releaseNote.isFull())
+        {
+            getLog().warn("Release note is limited to " + releaseNote.getCommits() + " commits -> Omitted " + releaseNote.getOmittedCommits()
+                    + " further commit(s), please check 'gitlabReleaseNoteMaxCommits' and 'gitlabReleaseNoteMaxBytes'");
+        }
+        return releaseNote.toString();
+    }
+
+    private ReleaseRequest createReleaseRequest(ReleaseContext context, String commitId, String releaseNote)
+    {
+        return new ReleaseRequest(gitlabHost, context.getNamespace(), context.getName(), context.getVersion(), commitId, releaseNote, gitlabReleaseLinks);
+    }
+
+    /**
+     * Resolves the GitLab version once per repository. If the version can not be resolved, e.g. because the access token is not allowed to read it,
+     * the tag is added as before.
+     */
+    private boolean isReleasesApiSupported(CachedGitlabRepository cachedRepository, GitlabClient client)
+    {
+        if (!gitlabReleasesApiDesired)
+        {
+            return false;
+        }
+
+        Boolean releasesApiSupported = cachedRepository.getReleasesApiSupported();
+        if (releasesApiSupported == null)
+        {
+            try
+            {
+                String version = client.getVersion().getVersion();
+                releasesApiSupported = Boolean.valueOf(isReleasesApiSupported(version));
+                cachedRepository.setReleasesApiSupported(releasesApiSupported);
+                if (!releasesApiSupported.booleanValue())
+                {
+                    getLog().info("Gitlab " + version + " does not support the releases API -> Falling back to tags");
+                }
+            }
+            catch (IOException e)
+            {
+                getLog().warn("Failed to resolve gitlab version -> Falling back to tags", e);
+                return false;
+            }
+        }
+        return releasesApiSupported.booleanValue();
+    }
+
+    static boolean isReleasesApiSupported(String version)
+    {
+        String[] parts = StringUtils.defaultString(version).split("[.-]");
+        for (int i = 0; i < RELEASES_API_VERSION.length; i++)
+        {
+            int part = i < parts.length ? NumberUtils.toInt(parts[i], -1) : -1;
+            if (part != RELEASES_API_VERSION[i])
+            {
+                return part > RELEASES_API_VERSION[i];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * GitLab rejects an existing tag with <code>400 Bad Request</code> (<code>409 Conflict</code> in newer versions) and a message like
+     * <code>Tag 1.0.0 already exists</code>.
+     */
+    private static boolean isTagAlreadyExistingError(GitlabAPIException e)
+    {
+        return (e.getResponseCode() == 400 || e.getResponseCode() == 409) && StringUtils.containsIgnoreCase(e.getMessage(), "already exists");
+    }
+
+    private static String getReleaseNoteWithLinks(ReleaseRequest request)
+    {
+        if (request.getLinks() == null || request.getLinks().isEmpty())
+        {
+            return request.getReleaseNote();
+        }
+
+        StringBuilder releaseNoteWithLinks = new StringBuilder(request.getReleaseNote()).append("\n");
+        request.getLinks().forEach(link -> releaseNoteWithLinks.append("* [").append(link.getName()).append("](").append(link.getUrl()).append(")\n"));
+        return releaseNoteWithLinks.toString();
     }
 
-    private static LocalDateTime toLocalDateTime(Date date)
+    private static String toIsoDateTime(Date date)
     {
-        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.of("UTC"));
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.of("UTC")).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
     }
 }
@@ -0,0 +1,65 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Request against the GitLab API.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class GitlabRequest
+{
+    private String method;
+
+    /**
+     * Path (and query) relative to the API root, e.g. <code>/projects/1/repository/tags</code>
+     */
+    private String path;
+
+    /**
+     * JSON body or <code>null</code>
+     */
+    private byte[] body;
+
+    private Deadline deadline;
+
+    /**
+     * Additional header fields
+     */
+    private Map<String, String> headers;
+
+    static GitlabRequest get(String path)
+    {
+        return new GitlabRequest("GET", path, null, Deadline.NONE, emptyMap());
+    }
+
+    static GitlabRequest post(String path, byte[] body)
+    {
+        return new GitlabRequest("POST", path, body, Deadline.NONE, emptyMap());
+    }
+
+    GitlabRequest withDeadline(Deadline deadline)
+    {
+        return new GitlabRequest(method, path, body, deadline, headers);
+    }
+
+    GitlabRequest withHeader(String name, String value)
+    {
+        Map<String, String> newHeaders = new LinkedHashMap<>(headers);
+        newHeaders.put(name, value);
+        return new GitlabRequest(method, path, body, deadline, unmodifiableMap(newHeaders));
+    }
+
+    boolean isIdempotent()
+    {
+        return "GET".equals(method);
+    }
+}
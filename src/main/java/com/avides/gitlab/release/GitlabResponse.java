@@ -0,0 +1,80 @@
+package com.avides.gitlab.release;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Value;
+
+/**
+ * Response of the GitLab API.
+ */
+@Value
+class GitlabResponse
+{
+    private int statusCode;
+
+    /**
+     * Header fields with case insensitive names
+     */
+    private Map<String, List<String>> headers;
+
+    private byte[] body;
+
+    /**
+     * Number of body bytes received from GitLab, which is less than the length of the body if it was transferred compressed or revalidated from
+     * the cache
+     */
+    private long wireBytes;
+
+    /**
+     * Number of retries which preceded the response
+     */
+    private int retries;
+
+    GitlabResponse(int statusCode, Map<String, List<String>> headers, byte[] body)
+    {
+        this(statusCode, headers, body, 0);
+    }
+
+    GitlabResponse(int statusCode, Map<String, List<String>> headers, byte[] body, int retries)
+    {
+        this(statusCode, headers, body, body.length, retries);
+    }
+
+    GitlabResponse(int statusCode, Map<String, List<String>> headers, byte[] body, long wireBytes, int retries)
+    {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.wireBytes = wireBytes;
+        this.retries = retries;
+    }
+
+    /**
+     * @return a copy with the given number of retries
+     */
+    GitlabResponse withRetries(int otherRetries)
+    {
+        return new GitlabResponse(statusCode, headers, body, wireBytes, otherRetries);
+    }
+
+    boolean isSuccessful()
+    {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * @return the first value of the header or <code>null</code> if the header is missing
+     */
+    String getHeader(String name)
+    {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    String getBodyAsString()
+    {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
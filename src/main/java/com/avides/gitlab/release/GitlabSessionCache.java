@@ -0,0 +1,139 @@
+package com.avides.gitlab.release;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.maven.execution.MavenSession;
+
+import lombok.Value;
+
+/**
+ * Keeps the GitLab connections for the lifetime of a maven session.
+ * <p>
+ * In a reactor build every module executes the release goal, so all modules which share a repository reuse the same connection, the resolved
+ * project and the already known tags instead of requesting them from GitLab again. Releases which are deferred to the end of the build and the
+ * circuit breakers of the GitLab hosts are kept here as well.
+ */
+class GitlabSessionCache
+{
+    private static final Map<Object, GitlabSessionCache> SESSION_CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<TransportKey, GitlabTransport> transports = new ConcurrentHashMap<>();
+
+    private final Map<RepositoryKey, CachedGitlabRepository> repositories = new ConcurrentHashMap<>();
+
+    private final Map<String, ReleaseContext> deferredReleases = new LinkedHashMap<>();
+
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private final Set<Object> finishedProjects = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns the cache of the given session.
+     * <p>
+     * The cache is bound to the execution request, because parallel builds work on clones of the session which share the same request.
+     *
+     * @param session the current maven session (may be <code>null</code>)
+     * @return the cache of the session or a new unshared cache if there is no session
+     */
+    static GitlabSessionCache of(MavenSession session)
+    {
+        if (session == null || session.getRequest() == null)
+        {
+            return new GitlabSessionCache();
+        }
+
+        return SESSION_CACHES.computeIfAbsent(session.getRequest(), request -> new GitlabSessionCache());
+    }
+
+    /**
+     * Returns the transport of the host and access token or connects to GitLab if the host is requested for the first time in this session, so all
+     * repositories of a host share the same transport.
+     */
+    GitlabTransport getTransport(String host, String accessToken, Supplier<GitlabTransport> connector)
+    {
+        return transports.computeIfAbsent(new TransportKey(host, accessToken), key -> connector.get());
+    }
+
+    /**
+     * Returns the cached repository or creates it with the shared transport of the host if the repository is requested for the first time in this
+     * session.
+     */
+    CachedGitlabRepository getRepository(String host, String accessToken, String namespace, String name, Supplier<GitlabTransport> connector)
+    {
+        return repositories.computeIfAbsent(new RepositoryKey(host, accessToken, namespace + "/" + name),
+                key -> new CachedGitlabRepository(getTransport(host, accessToken, connector)));
+    }
+
+    /**
+     * Returns the circuit breaker of the host, which is shared by all repositories of the host.
+     *
+     * @param host the GitLab host
+     * @param threshold the number of consecutive failures which opens the circuit, only used if the host is requested for the first time
+     * @return the circuit breaker
+     */
+    CircuitBreaker getCircuitBreaker(String host, int threshold)
+    {
+        return circuitBreakers.computeIfAbsent(host, key -> new CircuitBreaker(threshold));
+    }
+
+    /**
+     * Registers a release which is created at the end of the build. Only the context of the release is kept, which references neither the mojo nor
+     * the session, so the session can be collected even if the deferred releases are never created (e.g. after a failed module).
+     *
+     * @param releaseKey identifies the repository and version of the release
+     * @param context the context of the release
+     * @return <code>false</code> if a release with the same key is already registered
+     */
+    synchronized boolean addDeferredRelease(String releaseKey, ReleaseContext context)
+    {
+        return deferredReleases.putIfAbsent(releaseKey, context) == null;
+    }
+
+    /**
+     * Removes and returns the contexts of all registered releases in the order of their registration.
+     */
+    synchronized List<ReleaseContext> drainDeferredReleases()
+    {
+        List<ReleaseContext> releases = new ArrayList<>(deferredReleases.values());
+        deferredReleases.clear();
+        return releases;
+    }
+
+    /**
+     * Marks the project as finished, so the last finished project of a parallel build can be recognized.
+     *
+     * @param project the finished project
+     * @return the number of finished projects
+     */
+    int markProjectFinished(Object project)
+    {
+        finishedProjects.add(project);
+        return finishedProjects.size();
+    }
+
+    @Value
+    private static class TransportKey
+    {
+        private String host;
+
+        private String accessToken;
+    }
+
+    @Value
+    private static class RepositoryKey
+    {
+        private String host;
+
+        private String accessToken;
+
+        private String path;
+    }
+}
@@ -0,0 +1,22 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+
+/**
+ * Executes the HTTP requests against the GitLab API.
+ * <p>
+ * Every status code is returned as response, so the implementation only throws if the request could not be executed at all (e.g. connection
+ * refused or timed out).
+ */
+@FunctionalInterface
+interface GitlabTransport
+{
+    /**
+     * Executes the request.
+     *
+     * @param request the request
+     * @return the response with the uncompressed body
+     * @throws IOException If the request could not be executed
+     */
+    GitlabResponse execute(GitlabRequest request) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+
+/**
+ * Thrown if a GitLab request is rejected without being sent, because the {@link CircuitBreaker} of the host is open.
+ */
+class GitlabUnavailableException extends IOException
+{
+    private static final long serialVersionUID = 1L;
+
+    GitlabUnavailableException(String message)
+    {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link GitlabTransport} which records every request of a release with its endpoint, status, latency, size, page and retries to the
+ * {@link ReleaseReport}. The size is the number of bytes received from GitLab, not the length of the decompressed or cached body.
+ */
+class InstrumentingTransport implements GitlabTransport
+{
+    private static final Pattern PAGE = Pattern.compile("[?&]page=(\\d+)");
+
+    private final GitlabTransport transport;
+
+    private final ReleaseReport report;
+
+    InstrumentingTransport(GitlabTransport transport, ReleaseReport report)
+    {
+        this.transport = transport;
+        this.report = report;
+    }
+
+    @Override
+    public GitlabResponse execute(GitlabRequest request) throws IOException
+    {
+        long start = System.nanoTime();
+        try
+        {
+            GitlabResponse response = transport.execute(request);
+            report.add(new ReleaseReport.Request(request.getMethod(), toEndpoint(request.getPath()), request.getPath(), response.getStatusCode(),
+                    elapsedMillis(start), response.getWireBytes(), getPage(request, response), response.getRetries(), null));
+            return response;
+        }
+        catch (IOException e)
+        {
+            report.add(new ReleaseReport.Request(request.getMethod(), toEndpoint(request.getPath()), request.getPath(), 0, elapsedMillis(start), 0, null,
+                    RetryingTransport.getRetries(e), e.toString()));
+            throw e;
+        }
+    }
+
+    /**
+     * Replaces the identifiers of the path by placeholders and removes the query, so the requests of the same endpoint can be grouped, e.g.
+     * <code>/projects/:id/repository/tags/:name</code>.
+     */
+    static String toEndpoint(String path)
+    {
+        int query = path.indexOf('?');
+        String endpoint = query >= 0 ? path.substring(0, query) : path;
+        return endpoint.replaceFirst("^/(projects|groups)/[^/]+", "/$1/:id")
+                .replaceFirst("/repository/(tags|branches)/[^/]+$", "/repository/$1/:name");
+    }
+
+    /**
+     * @return the page of a paginated listing or <code>null</code> if the resource is not paginated
+     */
+    private static Integer getPage(GitlabRequest request, GitlabResponse response)
+    {
+        Matcher matcher = PAGE.matcher(request.getPath());
+        if (matcher.find())
+        {
+            return Integer.valueOf(matcher.group(1));
+        }
+        return response.getHeader("X-Next-Page") != null || response.getHeader("X-Page") != null ? Integer.valueOf(1) : null;
+    }
+
+    private static long elapsedMillis(long start)
+    {
+        return (System.nanoTime() - start) / 1000000;
+    }
+}
@@ -0,0 +1,197 @@
+package com.avides.gitlab.release;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Reads the commits of the release from the local git repository instead of the GitLab API.
+ * <p>
+ * The last release tag is the release tag of the newest commit (by commit time) which is reachable from the head commit of the released
+ * branch, so only tags which are fetched into the local repository are considered.
+ */
+class LocalGitHistory implements AutoCloseable
+{
+    private final Repository repository;
+
+    private LocalGitHistory(Repository repository)
+    {
+        this.repository = repository;
+    }
+
+    /**
+     * Opens the git repository which contains the directory.
+     *
+     * @param directory the directory (e.g. the base directory of the module)
+     * @return the history
+     * @throws IOException If the directory is not inside of a git repository
+     */
+    static LocalGitHistory open(File directory) throws IOException
+    {
+        FileRepositoryBuilder builder = new FileRepositoryBuilder().readEnvironment().findGitDir(directory);
+        if (builder.getGitDir() == null)
+        {
+            throw new IOException("No git repository found in " + directory);
+        }
+        return new LocalGitHistory(builder.setMustExist(true).build());
+    }
+
+    /**
+     * Resolves the path of the directory relative to the root of its git repository, e.g. the directory of a module in a multi-module repository.
+     *
+     * @param directory the directory
+     * @return the relative path with <code>/</code> as separator or <code>null</code> if the directory is the root or not inside of a git repository
+     * @throws IOException If the repository can not be read
+     */
+    static String findRelativePath(File directory) throws IOException
+    {
+        FileRepositoryBuilder builder = new FileRepositoryBuilder().readEnvironment().findGitDir(directory);
+        if (builder.getGitDir() == null)
+        {
+            return null;
+        }
+
+        File workTree = builder.setup().getWorkTree();
+        if (workTree == null)
+        {
+            return null;
+        }
+
+        Path relativePath = workTree.toPath().toRealPath().relativize(directory.toPath().toRealPath());
+        String path = relativePath.toString().replace(File.separatorChar, '/');
+        return path.isEmpty() ? null : path;
+    }
+
+    /**
+     * Resolves the commit which GitLab knows as the head of the branch: the remote tracking branch of <code>origin</code>, otherwise the local
+     * branch. If the branch is not known locally (e.g. the detached checkout of a CI job which did not fetch it) <code>HEAD</code> is used.
+     *
+     * @param branchName the name of the branch
+     * @return the id of the head commit
+     * @throws IOException If neither the branch nor <code>HEAD</code> can be resolved
+     */
+    String resolveHead(String branchName) throws IOException
+    {
+        for (String name : new String[] { Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + branchName, Constants.R_HEADS + branchName,
+                Constants.HEAD })
+        {
+            Ref ref = repository.exactRef(name);
+            if (ref != null && ref.getObjectId() != null)
+            {
+                return ref.getObjectId().getName();
+            }
+        }
+        throw new IOException("Head of branch " + branchName + " in " + repository.getDirectory() + " can not be resolved");
+    }
+
+    boolean isTagExisting(String tagName) throws IOException
+    {
+        return repository.exactRef(Constants.R_TAGS + tagName) != null;
+    }
+
+    /**
+     * Walks from the head commit (newest commit first) until the commit of the last release tag.
+     *
+     * @param headCommitId the id of the commit to start from, see {@link #resolveHead(String)}
+     * @param isReleaseTag decides by the tag name whether a tag is a release tag
+     * @param path only the commits which touch the path are walked (<code>null</code> for all commits)
+     * @param consumer receives the commits since the last release
+     * @return the name of the last release tag or <code>null</code> if there is no release tag
+     * @throws IOException If the repository can not be read
+     */
+    String walkCommitsSinceLastRelease(String headCommitId, Predicate<String> isReleaseTag, String path, Consumer<RevCommit> consumer) throws IOException
+    {
+        ObjectId headId = ObjectId.fromString(headCommitId);
+        Map<ObjectId, String> releaseTagNames = resolveReleaseTagNames(isReleaseTag);
+        ObjectId lastReleaseCommitId = findLastReleaseCommit(headId, releaseTagNames);
+
+        try (RevWalk revWalk = new RevWalk(repository))
+        {
+            if (path != null)
+            {
+                revWalk.setTreeFilter(AndTreeFilter.create(PathFilter.create(path), TreeFilter.ANY_DIFF));
+            }
+            revWalk.markStart(revWalk.parseCommit(headId));
+            if (lastReleaseCommitId != null)
+            {
+                revWalk.markUninteresting(revWalk.parseCommit(lastReleaseCommitId));
+            }
+            for (RevCommit commit : revWalk)
+            {
+                consumer.accept(commit);
+            }
+            return lastReleaseCommitId != null ? releaseTagNames.get(lastReleaseCommitId) : null;
+        }
+    }
+
+    /**
+     * Walks from the head commit (newest commit first) until the first commit with a release tag.
+     *
+     * @return the id of the commit or <code>null</code> if no release tag is reachable from the head commit
+     */
+    private ObjectId findLastReleaseCommit(ObjectId headId, Map<ObjectId, String> releaseTagNames) throws IOException
+    {
+        if (releaseTagNames.isEmpty())
+        {
+            return null;
+        }
+
+        try (RevWalk revWalk = new RevWalk(repository))
+        {
+            revWalk.setRetainBody(false);
+            revWalk.sort(RevSort.COMMIT_TIME_DESC);
+            revWalk.markStart(revWalk.parseCommit(headId));
+            for (RevCommit commit : revWalk)
+            {
+                if (releaseTagNames.containsKey(commit))
+                {
+                    return commit.copy();
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the commits of the release tags, so the last release is found by a single walk from the head commit instead of a walk per tag.
+     *
+     * @return the names of the release tags by the ids of their commits
+     */
+    private Map<ObjectId, String> resolveReleaseTagNames(Predicate<String> isReleaseTag) throws IOException
+    {
+        Map<ObjectId, String> releaseTagNames = new HashMap<>();
+        for (Ref tag : repository.getRefDatabase().getRefsByPrefix(Constants.R_TAGS))
+        {
+            String tagName = tag.getName().substring(Constants.R_TAGS.length());
+            if (isReleaseTag.test(tagName))
+            {
+                Ref peeledTag = repository.getRefDatabase().peel(tag);
+                ObjectId commitId = peeledTag.getPeeledObjectId() != null ? peeledTag.getPeeledObjectId() : peeledTag.getObjectId();
+                releaseTagNames.putIfAbsent(commitId, tagName);
+            }
+        }
+        return releaseTagNames;
+    }
+
+    @Override
+    public void close()
+    {
+        repository.close();
+    }
+}
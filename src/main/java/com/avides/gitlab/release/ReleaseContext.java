@@ -0,0 +1,113 @@
+package com.avides.gitlab.release;
+
+import java.io.File;
+
+import lombok.Value;
+
+/**
+ * Immutable state of a single release, which is passed through the release instead of being kept in the mojo. So the mojo itself is never
+ * modified during the execution and concurrent executions only share the session cache.
+ */
+@Value
+class ReleaseContext
+{
+    private String namespace;
+
+    private String name;
+
+    private String version;
+
+    private String branchName;
+
+    /**
+     * Path which filters the commits of the release note or <code>null</code> for all commits.
+     */
+    private String modulePath;
+
+    /**
+     * Base directory of the module of the build (may be <code>null</code>).
+     */
+    private File baseDirectory;
+
+    /**
+     * <code>false</code> if the repository is released without a module of the build (e.g. by the batch release), in which case neither the local
+     * history is read nor the release is spooled or deferred.
+     */
+    private boolean module;
+
+    private Deadline deadline;
+
+    /**
+     * Report of the GitLab requests of the release.
+     */
+    private ReleaseReport report;
+
+    /**
+     * File to which the report of a module is written (may be <code>null</code>).
+     */
+    private File reportFile;
+
+    /**
+     * Repository of the session, <code>null</code> until connected.
+     */
+    private CachedGitlabRepository repository;
+
+    /**
+     * Client of the release, <code>null</code> until connected.
+     */
+    private GitlabClient client;
+
+    ReleaseContext(String namespace, String name, String version, String branchName, String modulePath, File baseDirectory, boolean module,
+            Deadline deadline)
+    {
+        this(namespace, name, version, branchName, modulePath, baseDirectory, module, deadline, new ReleaseReport(), null, null, null);
+    }
+
+    private ReleaseContext(String namespace, String name, String version, String branchName, String modulePath, File baseDirectory, boolean module,
+            Deadline deadline, ReleaseReport report, File reportFile, CachedGitlabRepository repository, GitlabClient client)
+    {
+        this.namespace = namespace;
+        this.name = name;
+        this.version = version;
+        this.branchName = branchName;
+        this.modulePath = modulePath;
+        this.baseDirectory = baseDirectory;
+        this.module = module;
+        this.deadline = deadline;
+        this.report = report;
+        this.reportFile = reportFile;
+        this.repository = repository;
+        this.client = client;
+    }
+
+    /**
+     * @param otherDeadline the deadline of the module which creates a deferred release
+     * @return a copy with the other deadline
+     */
+    ReleaseContext withDeadline(Deadline otherDeadline)
+    {
+        return new ReleaseContext(namespace, name, version, branchName, modulePath, baseDirectory, module, otherDeadline, report, reportFile, repository,
+                client);
+    }
+
+    /**
+     * @param connectedRepository the repository of the session
+     * @param connectedClient the client of the release
+     * @return a connected copy
+     */
+    ReleaseContext connect(CachedGitlabRepository connectedRepository, GitlabClient connectedClient)
+    {
+        return new ReleaseContext(namespace, name, version, branchName, modulePath, baseDirectory, module, deadline, report, reportFile, connectedRepository,
+                connectedClient);
+    }
+
+    /**
+     * @param otherReportFile the file to which the report of the module is written
+     * @return a copy with the other report file
+     */
+    ReleaseContext withReportFile(File otherReportFile)
+    {
+        return new ReleaseContext(namespace, name, version, branchName, modulePath, baseDirectory, module, deadline, report, otherReportFile, repository,
+                client);
+    }
+}
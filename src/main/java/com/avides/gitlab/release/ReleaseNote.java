@@ -0,0 +1,107 @@
+package com.avides.gitlab.release;
+
+import java.nio.charset.StandardCharsets;
+
+import org.gitlab.api.models.GitlabCommit;
+
+/**
+ * Release note which lists one line per commit, limited by a maximum number of commits and a maximum size in bytes.
+ * <p>
+ * The limits are enforced while the commits are appended, so the commits beyond the limits are only counted and the caller can stop fetching
+ * further commits as soon as the note is full. The omitted commits are summarized by a last line, which is not part of the size limit.
+ */
+class ReleaseNote
+{
+    private final StringBuilder text = new StringBuilder();
+
+    private final int maxCommits;
+
+    private final int maxBytes;
+
+    private int commits;
+
+    private int bytes;
+
+    private int omittedCommits;
+
+    private boolean moreCommitsOmitted;
+
+    /**
+     * @param maxCommits the maximum number of listed commits, <code>0</code> for no limit
+     * @param maxBytes the maximum size of the listed commits in bytes (UTF-8), <code>0</code> for no limit
+     */
+    ReleaseNote(int maxCommits, int maxBytes)
+    {
+        this.maxCommits = maxCommits;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Appends the commit, merge commits are skipped.
+     *
+     * @param commit the commit
+     * @return <code>false</code> if the commit exceeds the limits and is omitted
+     */
+    boolean append(GitlabCommit commit)
+    {
+        if (commit.getTitle().startsWith("Merge branch"))
+        {
+            return true;
+        }
+
+        if (isFull() || (maxCommits > 0 && commits >= maxCommits))
+        {
+            omittedCommits++;
+            return false;
+        }
+
+        String line = "* " + commit.getTitle() + " (" + commit.getId() + ")\n";
+        int lineBytes = line.getBytes(StandardCharsets.UTF_8).length;
+        if (maxBytes > 0 && bytes + lineBytes > maxBytes)
+        {
+            omittedCommits++;
+            return false;
+        }
+
+        text.append(line);
+        commits++;
+        bytes += lineBytes;
+        return true;
+    }
+
+    /**
+     * @return <code>true</code> if a commit was omitted, so all further commits are omitted as well
+     */
+    boolean isFull()
+    {
+        return omittedCommits > 0;
+    }
+
+    /**
+     * Marks that further commits exist which were not fetched at all, so the number of omitted commits is a lower bound.
+     */
+    void markMoreCommitsOmitted()
+    {
+        moreCommitsOmitted = true;
+    }
+
+    int getCommits()
+    {
+        return commits;
+    }
+
+    int getOmittedCommits()
+    {
+        return omittedCommits;
+    }
+
+    @Override
+    public String toString()
+    {
+        if (omittedCommits == 0)
+        {
+            return text.toString();
+        }
+        return text + "... and " + (moreCommitsOmitted ? "at least " : "") + omittedCommits + " more " + (omittedCommits == 1 ? "commit" : "commits") + "\n";
+    }
+}
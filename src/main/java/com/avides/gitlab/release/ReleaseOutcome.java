@@ -0,0 +1,18 @@
+package com.avides.gitlab.release;
+
+/**
+ * Outcome of the release of a single repository.
+ */
+enum ReleaseOutcome
+{
+    RELEASED,
+    ALREADY_RELEASED,
+    DEFERRED,
+    SPOOLED,
+    SKIPPED,
+
+    /**
+     * Dry run, which resolved the release without adding the tag
+     */
+    PLANNED
+}
@@ -0,0 +1,192 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.gitlab.api.GitlabAPI;
+
+import lombok.Value;
+
+/**
+ * Collects the GitLab requests of a single release, which are recorded by the {@link InstrumentingTransport}. The requests are summarized per
+ * endpoint as a table for the log and written as JSON report, e.g. for CI dashboards.
+ */
+class ReleaseReport
+{
+    private final List<Request> requests = new ArrayList<>();
+
+    synchronized void add(Request request)
+    {
+        requests.add(request);
+    }
+
+    /**
+     * @return the recorded requests in the order of their completion
+     */
+    synchronized List<Request> getRequests()
+    {
+        return new ArrayList<>(requests);
+    }
+
+    /**
+     * @return the requests grouped by endpoint in the order of the first request of the endpoint
+     */
+    List<EndpointSummary> summarize()
+    {
+        Map<String, EndpointSummary> summaries = new LinkedHashMap<>();
+        for (Request request : getRequests())
+        {
+            String key = request.getMethod() + " " + request.getEndpoint();
+            EndpointSummary summary = summaries.getOrDefault(key, new EndpointSummary(request.getMethod(), request.getEndpoint(), 0, 0, 0, 0, 0, 0, 0));
+            summaries.put(key, summary.add(request));
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    /**
+     * @return the lines of a table with one row per endpoint and the total of all requests
+     */
+    List<String> formatSummary()
+    {
+        List<EndpointSummary> summaries = summarize();
+        EndpointSummary total = new EndpointSummary("", "Total", 0, 0, 0, 0, 0, 0, 0);
+        for (Request request : getRequests())
+        {
+            total = total.add(request);
+        }
+
+        int width = "Total".length();
+        for (EndpointSummary summary : summaries)
+        {
+            width = Math.max(width, summary.getName().length());
+        }
+
+        String format = "%-" + width + "s | %8s | %5s | %7s | %6s | %8s | %8s | %10s";
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(format, "Endpoint", "Requests", "Pages", "Retries", "Errors", "Time", "Max", "Bytes"));
+        lines.add(StringUtils.repeat('-', width) + "-+----------+-------+---------+--------+----------+----------+-----------");
+        for (EndpointSummary summary : summaries)
+        {
+            lines.add(formatRow(format, summary));
+        }
+        lines.add(formatRow(format, total));
+        return lines;
+    }
+
+    private static String formatRow(String format, EndpointSummary summary)
+    {
+        return String.format(format, summary.getName(), Integer.valueOf(summary.getRequests()), Integer.valueOf(summary.getPages()),
+                Integer.valueOf(summary.getRetries()), Integer.valueOf(summary.getErrors()), summary.getTotalMillis() + " ms", summary.getMaxMillis() + " ms",
+                Long.valueOf(summary.getBytes()));
+    }
+
+    /**
+     * Writes the report as JSON.
+     *
+     * @param file the report file, the parent directories are created if required
+     * @param release the properties of the release (e.g. repository, version and outcome), which are written in front of the requests
+     * @throws IOException If the report could not be written
+     */
+    void write(Path file, Map<String, Object> release) throws IOException
+    {
+        Map<String, Object> report = new LinkedHashMap<>(release);
+        report.put("endpoints", summarize());
+        report.put("requests", getRequests());
+
+        if (file.getParent() != null)
+        {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, GitlabAPI.MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(report));
+    }
+
+    /**
+     * Single GitLab request of the release.
+     */
+    @Value
+    static class Request
+    {
+        private String method;
+
+        /**
+         * Path without query and identifiers, e.g. <code>/projects/:id/repository/tags</code>
+         */
+        private String endpoint;
+
+        private String path;
+
+        /**
+         * HTTP status code or <code>0</code> if the request failed without response
+         */
+        private int status;
+
+        private long millis;
+
+        /**
+         * Number of body bytes received from GitLab
+         */
+        private long bytes;
+
+        /**
+         * Page of a paginated listing or <code>null</code>
+         */
+        private Integer page;
+
+        private int retries;
+
+        /**
+         * Failure of a request without response or <code>null</code>
+         */
+        private String error;
+
+        /**
+         * @return <code>true</code> if the request failed without response or with a server error
+         */
+        boolean isFailed()
+        {
+            return status == 0 || status >= 500;
+        }
+    }
+
+    /**
+     * Requests of a single endpoint.
+     */
+    @Value
+    static class EndpointSummary
+    {
+        private String method;
+
+        private String endpoint;
+
+        private int requests;
+
+        private int pages;
+
+        private int retries;
+
+        private int errors;
+
+        private long totalMillis;
+
+        private long maxMillis;
+
+        private long bytes;
+
+        String getName()
+        {
+            return StringUtils.isEmpty(method) ? endpoint : method + " " + endpoint;
+        }
+
+        EndpointSummary add(Request request)
+        {
+            return new EndpointSummary(method, endpoint, requests + 1, pages + (request.getPage() != null ? 1 : 0), retries + request.getRetries(),
+                    errors + (request.isFailed() ? 1 : 0), totalMillis + request.getMillis(), Math.max(maxMillis, request.getMillis()), bytes + request.getBytes());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.avides.gitlab.release;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Everything which is needed to create a release, so it can be spooled and created later without resolving anything but the project.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+class ReleaseRequest
+{
+    private String host;
+
+    private String namespace;
+
+    private String name;
+
+    private String version;
+
+    private String commitId;
+
+    private String releaseNote;
+
+    private List<GitlabReleaseLink> links;
+
+    /**
+     * @return identifies the repository and version of the release
+     */
+    String getReleaseKey()
+    {
+        return host + "/" + namespace + "/" + name + ":" + version;
+    }
+}
@@ -0,0 +1,77 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gitlab.api.GitlabAPI;
+
+/**
+ * Directory of release requests which are created later by the <code>flush</code> goal.
+ * <p>
+ * Every repository and version is spooled at most once, a release which is spooled again replaces the previous request. The files are written to a
+ * temporary file first, so a concurrent flush never reads a partially written request. The access token is not spooled.
+ */
+class ReleaseSpool
+{
+    private static final String SUFFIX = ".release.json";
+
+    private final Path directory;
+
+    ReleaseSpool(Path directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * @param request the release request
+     * @return the spool file of the request
+     * @throws IOException If the request could not be written
+     */
+    Path add(ReleaseRequest request) throws IOException
+    {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(CachingTransport.hash(request.getReleaseKey()) + SUFFIX);
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        GitlabAPI.MAPPER.writeValue(temporaryFile.toFile(), request);
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    /**
+     * @return the spool files, oldest first
+     * @throws IOException If the directory could not be read
+     */
+    List<Path> list() throws IOException
+    {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory))
+        {
+            return files;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX))
+        {
+            stream.forEach(files::add);
+        }
+        files.sort((file, other) -> Long.compare(file.toFile().lastModified(), other.toFile().lastModified()));
+        return files;
+    }
+
+    ReleaseRequest read(Path file) throws IOException
+    {
+        return GitlabAPI.MAPPER.readValue(file.toFile(), ReleaseRequest.class);
+    }
+
+    /**
+     * Removes the request after the release is created. A request which is already removed by a concurrent flush is ignored.
+     */
+    void remove(Path file) throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+}
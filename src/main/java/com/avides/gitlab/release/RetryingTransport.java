@@ -0,0 +1,317 @@
+package com.avides.gitlab.release;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.time.Clock;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * {@link GitlabTransport} which retries rate limited and failed requests.
+ * <p>
+ * The wait time is taken from the <code>Retry-After</code> or <code>RateLimit-Reset</code> header of GitLab, otherwise it grows exponentially with
+ * a random jitter, so concurrent pipelines do not retry at the same time. If a response reports the rate limit as exhausted, the next request
+ * waits for the reset instead of being rejected.
+ * <p>
+ * Reads are retried on every transient failure. The tag creation is not idempotent, so it is only retried if GitLab certainly did not process it
+ * (connection refused, <code>429 Too Many Requests</code> or <code>503 Service Unavailable</code>).
+ * <p>
+ * A request is not retried if the wait time would exceed its {@link Deadline}.
+ */
+class RetryingTransport implements GitlabTransport
+{
+    static final long MAX_WAIT_MILLIS = 60000;
+
+    private final GitlabTransport transport;
+
+    private final int maxRetries;
+
+    private final long initialBackoffMillis;
+
+    private final Log log;
+
+    private final Sleeper sleeper;
+
+    private final Clock clock;
+
+    private final DoubleSupplier jitter;
+
+    private volatile long rateLimitResetMillis;
+
+    RetryingTransport(GitlabTransport transport, int maxRetries, long initialBackoffMillis, Log log)
+    {
+        this(transport, maxRetries, initialBackoffMillis, log, Thread::sleep, Clock.systemUTC(), () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RetryingTransport(GitlabTransport transport, int maxRetries, long initialBackoffMillis, Log log, Sleeper sleeper, Clock clock, DoubleSupplier jitter)
+    {
+        this.transport = transport;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.log = log;
+        this.sleeper = sleeper;
+        this.clock = clock;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public GitlabResponse execute(GitlabRequest request) throws IOException
+    {
+        int retries = 0;
+        long waitedMillis = awaitRateLimitReset(request);
+
+        while (true)
+        {
+            GitlabResponse response;
+            try
+            {
+                response = transport.execute(request);
+            }
+            catch (IOException e)
+            {
+                long delayMillis = retries < maxRetries && isRetryable(request, e) ? backoff(retries + 1) : -1;
+                if (!isWithinDeadline(request, delayMillis))
+                {
+                    logRetries(request, retries, waitedMillis, "failed");
+                    if (retries > 0)
+                    {
+                        e.addSuppressed(new Retries(retries));
+                    }
+                    throw e;
+                }
+                retries++;
+                waitedMillis += await(request, retries, delayMillis, e.toString());
+                continue;
+            }
+
+            rememberRateLimit(response);
+
+            long delayMillis = retries < maxRetries && isRetryable(request, response.getStatusCode()) ? retryDelay(response, retries + 1) : -1;
+            if (!isWithinDeadline(request, delayMillis))
+            {
+                logRetries(request, retries, waitedMillis, response.isSuccessful() ? "succeeded" : "failed with " + response.getStatusCode());
+                return retries > 0 ? response.withRetries(retries) : response;
+            }
+            retries++;
+            waitedMillis += await(request, retries, delayMillis, String.valueOf(response.getStatusCode()));
+        }
+    }
+
+    /**
+     * @param delayMillis the wait time before the retry (negative if the request is not retried)
+     * @return <code>true</code> if there is enough time left to retry after the wait time
+     */
+    private static boolean isWithinDeadline(GitlabRequest request, long delayMillis)
+    {
+        return delayMillis >= 0 && Math.min(MAX_WAIT_MILLIS, delayMillis) < request.getDeadline().getRemainingMillis();
+    }
+
+    private static boolean isRetryable(GitlabRequest request, IOException e)
+    {
+        return !(e instanceof DeadlineExceededException) && (request.isIdempotent() || e instanceof ConnectException);
+    }
+
+    private static boolean isRetryable(GitlabRequest request, int statusCode)
+    {
+        switch (statusCode)
+        {
+            case 429:
+            case 503:
+                return true;
+            case 500:
+            case 502:
+            case 504:
+                return request.isIdempotent();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter: a random wait time between 0 and <code>initialBackoff * 2^(retry - 1)</code>.
+     */
+    private long backoff(int retry)
+    {
+        long maxBackoff = Math.min(MAX_WAIT_MILLIS, initialBackoffMillis << Math.min(retry - 1, 20));
+        return (long) (jitter.getAsDouble() * maxBackoff);
+    }
+
+    /**
+     * A reset time in the past (the header has a granularity of seconds and the clocks may drift) means the request can be retried immediately, so
+     * the delay is never negative.
+     */
+    private long retryDelay(GitlabResponse response, int retry)
+    {
+        Long retryAfterMillis = parseRetryAfter(response.getHeader("Retry-After"));
+        if (retryAfterMillis != null)
+        {
+            return Math.max(0, retryAfterMillis.longValue());
+        }
+
+        Long rateLimitResetMillis = parseRateLimitReset(response);
+        if (rateLimitResetMillis != null)
+        {
+            return Math.max(0, rateLimitResetMillis.longValue() - clock.millis());
+        }
+
+        return backoff(retry);
+    }
+
+    private void rememberRateLimit(GitlabResponse response)
+    {
+        if ("0".equals(response.getHeader("RateLimit-Remaining")))
+        {
+            Long resetMillis = parseRateLimitReset(response);
+            if (resetMillis != null)
+            {
+                rateLimitResetMillis = resetMillis.longValue();
+            }
+        }
+    }
+
+    /**
+     * @return the wait time in milliseconds
+     */
+    private long awaitRateLimitReset(GitlabRequest request) throws InterruptedIOException
+    {
+        long waitMillis = Math.min(MAX_WAIT_MILLIS, rateLimitResetMillis - clock.millis());
+        if (waitMillis <= 0)
+        {
+            return 0;
+        }
+        if (waitMillis >= request.getDeadline().getRemainingMillis())
+        {
+            throw new DeadlineExceededException("Time budget for gitlab requests exceeded before the rate limit reset");
+        }
+
+        log.info("GitLab rate limit exhausted -> Waiting " + waitMillis + " ms for the reset");
+        sleep(waitMillis);
+        return waitMillis;
+    }
+
+    /**
+     * @return the wait time in milliseconds
+     */
+    private long await(GitlabRequest request, int retry, long delayMillis, String reason) throws InterruptedIOException
+    {
+        long waitMillis = Math.max(0, Math.min(MAX_WAIT_MILLIS, delayMillis));
+        log.warn(request.getMethod() + " " + request.getPath() + " failed (" + reason + ") -> Retry " + retry + " of " + maxRetries + " in " + waitMillis + " ms");
+        sleep(waitMillis);
+        return waitMillis;
+    }
+
+    private void sleep(long millis) throws InterruptedIOException
+    {
+        try
+        {
+            sleeper.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for gitlab");
+        }
+    }
+
+    private void logRetries(GitlabRequest request, int retries, long waitedMillis, String outcome)
+    {
+        if (retries > 0 || waitedMillis > 0)
+        {
+            log.info(request.getMethod() + " " + request.getPath() + " " + outcome + " after " + retries + " retries, waited " + waitedMillis + " ms");
+        }
+    }
+
+    /**
+     * <code>Retry-After</code> is either a number of seconds or a HTTP date.
+     */
+    private Long parseRetryAfter(String retryAfter)
+    {
+        if (retryAfter == null || retryAfter.trim().isEmpty())
+        {
+            return null;
+        }
+
+        try
+        {
+            return Long.valueOf(Long.parseLong(retryAfter.trim()) * 1000);
+        }
+        catch (NumberFormatException e)
+        {
+            try
+            {
+                return Long.valueOf(ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() - clock.millis());
+            }
+            catch (DateTimeParseException e2)
+            {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * <code>RateLimit-Reset</code> is the unix time (in seconds) when the rate limit is reset.
+     */
+    private static Long parseRateLimitReset(GitlabResponse response)
+    {
+        String reset = response.getHeader("RateLimit-Reset");
+        try
+        {
+            return reset != null ? Long.valueOf(Long.parseLong(reset.trim()) * 1000) : null;
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of retries which preceded the failure of a request
+     */
+    static int getRetries(IOException e)
+    {
+        for (Throwable suppressed : e.getSuppressed())
+        {
+            if (suppressed instanceof Retries)
+            {
+                return ((Retries) suppressed).getRetries();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Attached as suppressed exception to the failure of a retried request, so the failure keeps its type (e.g. {@link ConnectException}).
+     */
+    static class Retries extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int retries;
+
+        Retries(int retries)
+        {
+            super("Failed after " + retries + " retries", null, false, false);
+            this.retries = retries;
+        }
+
+        int getRetries()
+        {
+            return retries;
+        }
+    }
+
+    /**
+     * Waits between the retries.
+     */
+    @FunctionalInterface
+    interface Sleeper
+    {
+        void sleep(long millis) throws InterruptedException;
+    }
+}
@@ -0,0 +1,195 @@
+package com.avides.gitlab.release;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@link GitlabTransport} based on {@link HttpURLConnection}.
+ * <p>
+ * In contrast to the <code>GitlabHTTPRequestor</code> of the GitLab API the connections are never disconnected. The responses are read completely,
+ * so the JDK keeps the connections alive and reuses them from its connection pool for the next requests to the same host. The responses are
+ * requested gzip compressed.
+ * <p>
+ * The timeouts are bounded by the {@link Deadline} of the request.
+ */
+class UrlConnectionTransport implements GitlabTransport
+{
+    private static final String API_NAMESPACE = "/api/v4";
+
+    private static final String USER_AGENT = "gitlab-release-maven-plugin";
+
+    private static final int INITIAL_BODY_SIZE = 8192;
+
+    private final String host;
+
+    private final String accessToken;
+
+    private final int connectTimeout;
+
+    private final int readTimeout;
+
+    /**
+     * @param host the GitLab host, e.g. <code>https://gitlab.com</code>
+     * @param accessToken the private access token (may be <code>null</code>)
+     * @param connectTimeout the connect timeout in milliseconds (<code>0</code> is infinite)
+     * @param readTimeout the read timeout in milliseconds (<code>0</code> is infinite)
+     */
+    UrlConnectionTransport(String host, String accessToken, int connectTimeout, int readTimeout)
+    {
+        this.host = host.endsWith("/") ? host.substring(0, host.length() - 1) : host;
+        this.accessToken = accessToken;
+        this.connectTimeout = Math.max(0, connectTimeout);
+        this.readTimeout = Math.max(0, readTimeout);
+    }
+
+    @Override
+    public GitlabResponse execute(GitlabRequest request) throws IOException
+    {
+        request.getDeadline().check();
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(host + API_NAMESPACE + request.getPath()).openConnection();
+        connection.setConnectTimeout(request.getDeadline().bound(connectTimeout));
+        connection.setReadTimeout(request.getDeadline().bound(readTimeout));
+        connection.setRequestMethod(request.getMethod());
+        connection.setRequestProperty("User-Agent", USER_AGENT);
+        connection.setRequestProperty("Accept", "application/json");
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+
+        if (accessToken != null)
+        {
+            connection.setRequestProperty("PRIVATE-TOKEN", accessToken);
+        }
+
+        request.getHeaders().forEach(connection::setRequestProperty);
+
+        if (request.getBody() != null)
+        {
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(request.getBody().length);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream outputStream = connection.getOutputStream())
+            {
+                outputStream.write(request.getBody());
+            }
+        }
+
+        int statusCode = connection.getResponseCode();
+        InputStream inputStream = statusCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        CountingInputStream wireStream = inputStream != null ? new CountingInputStream(inputStream) : null;
+        boolean gzipped = "gzip".equalsIgnoreCase(connection.getContentEncoding());
+        byte[] body = readBody(wireStream, gzipped, gzipped ? -1 : connection.getContentLength());
+        return new GitlabResponse(statusCode, readHeaders(connection), body, wireStream != null ? wireStream.getCount() : 0, 0);
+    }
+
+    private static Map<String, List<String>> readHeaders(HttpURLConnection connection)
+    {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        // the status line is listed with a null key
+        connection.getHeaderFields().forEach((name, values) ->
+        {
+            if (name != null)
+            {
+                headers.put(name, values);
+            }
+        });
+        return headers;
+    }
+
+    /**
+     * Reads the body completely and closes the stream, which releases the connection into the keep-alive pool.
+     * <p>
+     * The body is read directly into the returned array. An uncompressed body of known length is read without any copy, otherwise the array is
+     * grown while reading and trimmed once at the end.
+     *
+     * @param contentLength the length of the body or <code>-1</code> if unknown
+     */
+    private static byte[] readBody(InputStream inputStream, boolean gzipped, int contentLength) throws IOException
+    {
+        if (inputStream == null)
+        {
+            return new byte[0];
+        }
+
+        try (InputStream stream = gzipped ? new GZIPInputStream(inputStream) : inputStream)
+        {
+            byte[] body = new byte[contentLength >= 0 ? contentLength : INITIAL_BODY_SIZE];
+            int length = 0;
+            while (true)
+            {
+                if (length == body.length)
+                {
+                    // only grow the array if the body is longer than expected
+                    int next = stream.read();
+                    if (next == -1)
+                    {
+                        return body;
+                    }
+                    body = Arrays.copyOf(body, Math.max(INITIAL_BODY_SIZE, body.length * 2));
+                    body[length++] = (byte) next;
+                }
+
+                int read = stream.read(body, length, body.length - length);
+                if (read == -1)
+                {
+                    return length == body.length ? body : Arrays.copyOf(body, length);
+                }
+                length += read;
+            }
+        }
+        finally
+        {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Counts the bytes read from the connection, which are the compressed bytes of a gzipped body.
+     */
+    private static class CountingInputStream extends FilterInputStream
+    {
+        private long count;
+
+        CountingInputStream(InputStream inputStream)
+        {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            int read = super.read();
+            count += read != -1 ? 1 : 0;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException
+        {
+            int read = super.read(buffer, offset, length);
+            count += Math.max(0, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException
+        {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        long getCount()
+        {
+            return count;
+        }
+    }
+}
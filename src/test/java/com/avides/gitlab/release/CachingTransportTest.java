@@ -0,0 +1,142 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CachingTransportTest
+{
+    private static final String TAGS = "[{\"name\":\"1.0.0\",\"message\":\"MESSAGE\",\"commit\":{\"id\":\"COMMIT_REF\",\"message\":\"COMMIT_MESSAGE\"," +
+            "\"committed_date\":\"2018-01-01T00:00:00.000Z\"},\"release\":{\"description\":\"DESCRIPTION\"}}]";
+
+    private static final String COMPACT_TAGS = "[{\"name\":\"1.0.0\",\"commit\":{\"id\":\"COMMIT_REF\",\"committed_date\":\"2018-01-01T00:00:00.000Z\"}}]";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<GitlabRequest> requests = new ArrayList<>();
+
+    @Test
+    public void testExecute() throws Exception
+    {
+        GitlabTransport transport = createTransport(response(200, TAGS, "ETag", "W/\"1\"", "X-Next-Page", "2"), response(304, "", "ETag", "W/\"1\""));
+
+        GitlabResponse response = transport.execute(GitlabRequest.get("/projects/1/repository/tags?per_page=100"));
+        assertThat(response.getBodyAsString()).isEqualTo(TAGS);
+        assertThat(requests.get(0).getHeaders()).isEmpty();
+
+        GitlabResponse cachedResponse = transport.execute(GitlabRequest.get("/projects/1/repository/tags?per_page=100"));
+        assertThat(cachedResponse.getStatusCode()).isEqualTo(200);
+        assertThat(cachedResponse.getBodyAsString()).isEqualTo(COMPACT_TAGS);
+        assertThat(cachedResponse.getHeader("X-Next-Page")).isEqualTo("2");
+        // the cached body is not transferred again
+        assertThat(cachedResponse.getWireBytes()).isEqualTo(0);
+        assertThat(requests.get(1).getHeaders()).containsEntry("If-None-Match", "W/\"1\"");
+    }
+
+    @Test
+    public void testExecuteWithChangedResource() throws Exception
+    {
+        GitlabTransport transport = createTransport(response(200, "{\"id\":1}", "ETag", "W/\"1\""), response(200, "{\"id\":2}", "ETag", "W/\"2\""),
+                response(304, ""));
+
+        transport.execute(GitlabRequest.get("/projects/NAMESPACE%2FNAME"));
+        assertThat(transport.execute(GitlabRequest.get("/projects/NAMESPACE%2FNAME")).getBodyAsString()).isEqualTo("{\"id\":2}");
+        assertThat(transport.execute(GitlabRequest.get("/projects/NAMESPACE%2FNAME")).getBodyAsString()).isEqualTo("{\"id\":2}");
+        assertThat(requests.get(2).getHeaders()).containsEntry("If-None-Match", "W/\"2\"");
+    }
+
+    @Test
+    public void testExecuteWithoutETag() throws Exception
+    {
+        GitlabTransport transport = createTransport(response(200, "{\"id\":1}"), response(200, "{\"id\":1}"));
+
+        transport.execute(GitlabRequest.get("/projects/NAMESPACE%2FNAME"));
+        transport.execute(GitlabRequest.get("/projects/NAMESPACE%2FNAME"));
+
+        assertThat(requests.get(1).getHeaders()).isEmpty();
+        assertThat(temporaryFolder.getRoot().list()).isEmpty();
+    }
+
+    @Test
+    public void testExecuteWithNotCacheableRequest() throws Exception
+    {
+        GitlabTransport transport = createTransport(response(200, "[]", "ETag", "W/\"1\""), response(200, "{}", "ETag", "W/\"1\""));
+
+        transport.execute(GitlabRequest.get("/projects/1/repository/commits?ref_name=COMMIT_REF"));
+        transport.execute(GitlabRequest.post("/projects/1/repository/tags", new byte[0]));
+
+        assertThat(temporaryFolder.getRoot().list()).isEmpty();
+    }
+
+    @Test
+    public void testExecuteWithOtherAccessToken() throws Exception
+    {
+        File directory = temporaryFolder.getRoot();
+        Iterator<GitlabResponse> responses = Arrays.asList(response(200, "{\"id\":1}", "ETag", "W/\"1\""), response(200, "{\"id\":1}", "ETag", "W/\"1\""))
+                .iterator();
+        GitlabTransport delegate = request ->
+        {
+            requests.add(request);
+            return responses.next();
+        };
+
+        new CachingTransport(delegate, directory.toPath(), "HOST", "TOKEN", new SystemStreamLog()).execute(GitlabRequest.get("/projects/1"));
+        new CachingTransport(delegate, directory.toPath(), "HOST", "OTHER_TOKEN", new SystemStreamLog()).execute(GitlabRequest.get("/projects/1"));
+
+        assertThat(requests.get(1).getHeaders()).isEmpty();
+        assertThat(directory.list()).hasSize(2);
+        for (File file : directory.listFiles())
+        {
+            assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)).doesNotContain("TOKEN").doesNotContain("/projects/1");
+        }
+    }
+
+    @Test
+    public void testExecuteWithCorruptCacheFile() throws Exception
+    {
+        GitlabTransport transport = createTransport(response(200, "{\"id\":1}", "ETag", "W/\"1\""), response(200, "{\"id\":1}", "ETag", "W/\"1\""));
+
+        transport.execute(GitlabRequest.get("/projects/1"));
+        for (File file : temporaryFolder.getRoot().listFiles())
+        {
+            Files.write(file.toPath(), "CORRUPT".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(transport.execute(GitlabRequest.get("/projects/1")).getBodyAsString()).isEqualTo("{\"id\":1}");
+        assertThat(requests.get(1).getHeaders()).isEmpty();
+    }
+
+    private GitlabTransport createTransport(GitlabResponse... responses)
+    {
+        Iterator<GitlabResponse> iterator = Arrays.asList(responses).iterator();
+        return new CachingTransport(request ->
+        {
+            requests.add(request);
+            return iterator.next();
+        }, temporaryFolder.getRoot().toPath(), "HOST", "TOKEN", new SystemStreamLog());
+    }
+
+    private static GitlabResponse response(int statusCode, String body, String... headers)
+    {
+        Map<String, List<String>> headerMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < headers.length; i += 2)
+        {
+            headerMap.put(headers[i], Arrays.asList(headers[i + 1]));
+        }
+        return new GitlabResponse(statusCode, headerMap, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,139 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CassetteTransportTest
+{
+    private static final String ACCESS_TOKEN = "SECRET";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Deque<Object> answers = new ArrayDeque<>();
+
+    private Path file;
+
+    @Before
+    public void setUp()
+    {
+        file = temporaryFolder.getRoot().toPath().resolve("target/gitlab-cassette.jsonl");
+    }
+
+    @Test
+    public void testRecordAndReplay() throws Exception
+    {
+        answers.add(response(503, "{\"message\":\"503 Service Unavailable\"}"));
+        // e.g. a gzipped body, which is smaller on the wire
+        answers.add(new GitlabResponse(200, singletonMap("X-Next-Page", singletonList("2")), "[{\"name\":\"1.0.0\"}]".getBytes(StandardCharsets.UTF_8), 12, 0));
+        answers.add(response(201, "{\"name\":\"1.1.0\",\"message\":\"" + ACCESS_TOKEN + "\"}"));
+        CassetteTransport recorder = createTransport(CassetteTransport.Mode.RECORD, false);
+
+        assertThat(recorder.execute(GitlabRequest.get("/projects/1/repository/tags?search=" + ACCESS_TOKEN)).getStatusCode()).isEqualTo(503);
+        assertThat(recorder.execute(GitlabRequest.get("/projects/1/repository/tags?search=" + ACCESS_TOKEN)).getStatusCode()).isEqualTo(200);
+        recorder.execute(GitlabRequest.post("/projects/1/repository/tags", "{\"tag_name\":\"1.1.0\"}".getBytes(StandardCharsets.UTF_8)));
+
+        String cassette = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertThat(cassette).doesNotContain(ACCESS_TOKEN).contains(CassetteTransport.REDACTED).hasLineCount(3);
+
+        CassetteTransport player = createTransport(CassetteTransport.Mode.REPLAY, false);
+
+        GitlabResponse created = player.execute(GitlabRequest.post("/projects/1/repository/tags", "{\"tag_name\":\"1.1.0\"}".getBytes(StandardCharsets.UTF_8)));
+        assertThat(created.getStatusCode()).isEqualTo(201);
+        assertThat(created.getBodyAsString()).isEqualTo("{\"name\":\"1.1.0\",\"message\":\"" + CassetteTransport.REDACTED + "\"}");
+        // the interactions of the same request are replayed in order and the last one is repeated
+        assertThat(player.execute(GitlabRequest.get("/projects/1/repository/tags?search=" + ACCESS_TOKEN)).getStatusCode()).isEqualTo(503);
+        GitlabResponse tags = player.execute(GitlabRequest.get("/projects/1/repository/tags?search=" + ACCESS_TOKEN));
+        assertThat(tags.getStatusCode()).isEqualTo(200);
+        assertThat(tags.getHeader("x-next-page")).isEqualTo("2");
+        assertThat(tags.getWireBytes()).isEqualTo(12);
+        // the recorded bytes are replayed, not the length of the redacted body
+        assertThat(created.getWireBytes()).isEqualTo(("{\"name\":\"1.1.0\",\"message\":\"" + ACCESS_TOKEN + "\"}").length());
+        assertThat(player.execute(GitlabRequest.get("/projects/1/repository/tags?search=" + ACCESS_TOKEN)).getStatusCode()).isEqualTo(200);
+        assertThat(answers).isEmpty();
+    }
+
+    @Test
+    public void testReplayWithFailure() throws Exception
+    {
+        answers.add(new SocketTimeoutException("Read timed out"));
+        answers.add(new ConnectException("Connection refused"));
+        answers.add(new IOException(ACCESS_TOKEN));
+        CassetteTransport recorder = createTransport(CassetteTransport.Mode.RECORD, false);
+
+        assertThatThrownBy(() -> recorder.execute(GitlabRequest.get("/projects/1"))).isInstanceOf(SocketTimeoutException.class);
+        assertThatThrownBy(() -> recorder.execute(GitlabRequest.get("/projects/3"))).isInstanceOf(ConnectException.class);
+        assertThatThrownBy(() -> recorder.execute(GitlabRequest.get("/projects/4"))).isInstanceOf(IOException.class);
+
+        CassetteTransport player = createTransport(CassetteTransport.Mode.REPLAY, false);
+
+        // the failures are replayed with their type
+        assertThatThrownBy(() -> player.execute(GitlabRequest.get("/projects/1"))).isExactlyInstanceOf(SocketTimeoutException.class)
+                .hasMessage("Read timed out");
+        assertThatThrownBy(() -> player.execute(GitlabRequest.get("/projects/3"))).isExactlyInstanceOf(ConnectException.class)
+                .hasMessage("Connection refused");
+        assertThatThrownBy(() -> player.execute(GitlabRequest.get("/projects/4"))).isExactlyInstanceOf(IOException.class)
+                .hasMessage(CassetteTransport.REDACTED);
+        assertThatThrownBy(() -> player.execute(GitlabRequest.get("/projects/2"))).isInstanceOf(IOException.class)
+                .hasMessage("No interaction recorded in " + file + " for GET /projects/2");
+    }
+
+    @Test
+    public void testReplayWithFailureWithoutType() throws Exception
+    {
+        Files.createDirectories(file.getParent());
+        Files.write(file, singletonList("{\"method\":\"GET\",\"path\":\"/projects/1\",\"error\":\"java.net.ConnectException: Connection refused\"}"));
+
+        assertThatThrownBy(() -> createTransport(CassetteTransport.Mode.REPLAY, false).execute(GitlabRequest.get("/projects/1")))
+                .isExactlyInstanceOf(IOException.class).hasMessage("Replayed java.net.ConnectException: Connection refused");
+    }
+
+    @Test
+    public void testReplayWithLatency() throws Exception
+    {
+        Files.createDirectories(file.getParent());
+        Files.write(file, singletonList("{\"method\":\"GET\",\"path\":\"/projects/1\",\"status\":200,\"body\":\"{}\",\"millis\":200}"));
+
+        long start = System.nanoTime();
+        createTransport(CassetteTransport.Mode.REPLAY, false).execute(GitlabRequest.get("/projects/1"));
+        assertThat((System.nanoTime() - start) / 1000000).isLessThan(200);
+
+        start = System.nanoTime();
+        createTransport(CassetteTransport.Mode.REPLAY, true).execute(GitlabRequest.get("/projects/1"));
+        assertThat((System.nanoTime() - start) / 1000000).isGreaterThanOrEqualTo(200);
+    }
+
+    private CassetteTransport createTransport(CassetteTransport.Mode mode, boolean latencySimulated)
+    {
+        return new CassetteTransport(request ->
+        {
+            Object answer = answers.poll();
+            if (answer instanceof IOException)
+            {
+                throw (IOException) answer;
+            }
+            return (GitlabResponse) answer;
+        }, mode, file, ACCESS_TOKEN, latencySimulated);
+    }
+
+    private static GitlabResponse response(int statusCode, String body)
+    {
+        return new GitlabResponse(statusCode, singletonMap("X-Next-Page", singletonList("2")), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
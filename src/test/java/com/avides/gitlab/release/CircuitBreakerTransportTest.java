@@ -0,0 +1,98 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+public class CircuitBreakerTransportTest
+{
+    private static final GitlabRequest GET = GitlabRequest.get("/projects/1");
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(2);
+
+    private int executions;
+
+    @Test
+    public void testExecute() throws Exception
+    {
+        GitlabTransport transport = createTransport(response(500), response(404), response(503));
+
+        transport.execute(GET);
+        transport.execute(GET);
+        transport.execute(GET);
+
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExecuteWithOpenCircuit() throws Exception
+    {
+        GitlabTransport transport = createTransport(new IOException(), response(429), response(200));
+
+        assertThatThrownBy(() -> transport.execute(GET)).isInstanceOf(IOException.class);
+        transport.execute(GET);
+
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        assertThatThrownBy(() -> transport.execute(GET)).isInstanceOf(GitlabUnavailableException.class).hasMessage("Gitlab is unavailable after 2 consecutive failures");
+        assertThat(executions).isEqualTo(2);
+
+        // an open circuit stays open
+        circuitBreaker.recordSuccess();
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+
+    @Test
+    public void testExecuteWithClientSideInterruption() throws Exception
+    {
+        GitlabTransport transport = createTransport(new DeadlineExceededException("expired"), new InterruptedIOException(), new GitlabUnavailableException(
+                "unavailable"), new SocketTimeoutException());
+
+        assertThatThrownBy(() -> transport.execute(GET)).isInstanceOf(DeadlineExceededException.class);
+        assertThatThrownBy(() -> transport.execute(GET)).isInstanceOf(InterruptedIOException.class);
+        assertThatThrownBy(() -> transport.execute(GET)).isInstanceOf(GitlabUnavailableException.class);
+        assertThat(circuitBreaker.getConsecutiveFailures()).isEqualTo(0);
+
+        // a read timeout is a failure of the host
+        assertThatThrownBy(() -> transport.execute(GET)).isInstanceOf(SocketTimeoutException.class);
+        assertThat(circuitBreaker.getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExecuteWithoutThreshold() throws Exception
+    {
+        CircuitBreaker disabledCircuitBreaker = new CircuitBreaker(0);
+        disabledCircuitBreaker.recordFailure();
+        disabledCircuitBreaker.recordFailure();
+
+        assertThat(disabledCircuitBreaker.isOpen()).isFalse();
+    }
+
+    private GitlabTransport createTransport(Object... outcomes)
+    {
+        Iterator<Object> iterator = Arrays.asList(outcomes).iterator();
+        return new CircuitBreakerTransport(request ->
+        {
+            executions++;
+            Object outcome = iterator.next();
+            if (outcome instanceof IOException)
+            {
+                throw (IOException) outcome;
+            }
+            return (GitlabResponse) outcome;
+        }, circuitBreaker);
+    }
+
+    private static GitlabResponse response(int statusCode)
+    {
+        return new GitlabResponse(statusCode, emptyMap(), new byte[0]);
+    }
+}
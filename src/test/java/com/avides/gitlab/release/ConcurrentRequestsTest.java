@@ -0,0 +1,116 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.Test;
+
+public class ConcurrentRequestsTest
+{
+    @Test
+    public void testSubmitWithParallelism() throws Exception
+    {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+
+        try (ConcurrentRequests requests = new ConcurrentRequests(2))
+        {
+            // both requests only complete if they are executed at the same time
+            ConcurrentRequests.Result<Boolean> first = requests.submit(() ->
+            {
+                firstStarted.countDown();
+                return Boolean.valueOf(await(secondStarted));
+            });
+            ConcurrentRequests.Result<Boolean> second = requests.submit(() ->
+            {
+                secondStarted.countDown();
+                return Boolean.valueOf(await(firstStarted));
+            });
+
+            assertThat(first.get()).isTrue();
+            assertThat(second.get()).isTrue();
+        }
+    }
+
+    @Test
+    public void testSubmitWithoutParallelism() throws Exception
+    {
+        AtomicInteger executions = new AtomicInteger();
+
+        try (ConcurrentRequests requests = new ConcurrentRequests(1))
+        {
+            ConcurrentRequests.Result<String> result = requests.submit(() -> Thread.currentThread().getName() + executions.incrementAndGet());
+
+            assertThat(executions.get()).isEqualTo(0);
+            assertThat(result.get()).isEqualTo(Thread.currentThread().getName() + 1);
+            assertThat(result.get()).isEqualTo(Thread.currentThread().getName() + 1);
+            assertThat(executions.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testSubmitWithMojoExecutionException()
+    {
+        MojoExecutionException exception = new MojoExecutionException("FAILED");
+
+        try (ConcurrentRequests requests = new ConcurrentRequests(2))
+        {
+            ConcurrentRequests.Result<String> result = requests.submit(() ->
+            {
+                throw exception;
+            });
+
+            assertThatThrownBy(result::get).isSameAs(exception);
+        }
+    }
+
+    @Test
+    public void testSubmitWithRuntimeException()
+    {
+        IllegalStateException exception = new IllegalStateException("FAILED");
+
+        try (ConcurrentRequests requests = new ConcurrentRequests(2))
+        {
+            ConcurrentRequests.Result<String> result = requests.submit(() ->
+            {
+                throw exception;
+            });
+
+            assertThatThrownBy(result::get).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to execute gitlab request").hasCause(exception);
+        }
+    }
+
+    @Test
+    public void testSubmitWithRuntimeExceptionAndWithoutParallelism()
+    {
+        IllegalStateException exception = new IllegalStateException("FAILED");
+
+        try (ConcurrentRequests requests = new ConcurrentRequests(1))
+        {
+            ConcurrentRequests.Result<String> result = requests.submit(() ->
+            {
+                throw exception;
+            });
+
+            assertThatThrownBy(result::get).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to execute gitlab request").hasCause(exception);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch)
+    {
+        try
+        {
+            return latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
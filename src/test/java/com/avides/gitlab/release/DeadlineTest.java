@@ -0,0 +1,86 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+public class DeadlineTest
+{
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochMilli(1000), ZoneOffset.UTC);
+
+    @Test
+    public void testAfter()
+    {
+        Deadline deadline = Deadline.after(500, CLOCK);
+
+        assertThat(deadline.isUnlimited()).isFalse();
+        assertThat(deadline.isExpired()).isFalse();
+        assertThat(deadline.getRemainingMillis()).isEqualTo(500);
+    }
+
+    @Test
+    public void testAfterWithoutBudget()
+    {
+        assertThat(Deadline.after(0, CLOCK)).isSameAs(Deadline.NONE);
+        assertThat(Deadline.after(-1, CLOCK)).isSameAs(Deadline.NONE);
+        assertThat(Deadline.NONE.isUnlimited()).isTrue();
+        assertThat(Deadline.NONE.getRemainingMillis()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testBound()
+    {
+        Deadline deadline = Deadline.after(500, CLOCK);
+
+        assertThat(deadline.bound(100)).isEqualTo(100);
+        assertThat(deadline.bound(1000)).isEqualTo(500);
+        assertThat(deadline.bound(0)).isEqualTo(500);
+        assertThat(Deadline.NONE.bound(0)).isEqualTo(0);
+        assertThat(Deadline.NONE.bound(1000)).isEqualTo(1000);
+    }
+
+    @Test
+    public void testCheck() throws Exception
+    {
+        MutableClock clock = new MutableClock();
+        Deadline deadline = Deadline.after(500, clock);
+
+        deadline.check();
+
+        clock.millis = 1500;
+
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(deadline.getRemainingMillis()).isEqualTo(0);
+        assertThat(deadline.bound(0)).isEqualTo(1);
+        assertThatThrownBy(deadline::check).isInstanceOf(DeadlineExceededException.class).hasMessage("Time budget for gitlab requests exceeded");
+    }
+
+    private static class MutableClock extends Clock
+    {
+        private long millis = 1000;
+
+        @Override
+        public ZoneId getZone()
+        {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone)
+        {
+            return this;
+        }
+
+        @Override
+        public Instant instant()
+        {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
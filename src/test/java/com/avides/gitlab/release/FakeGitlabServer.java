@@ -0,0 +1,546 @@
+package com.avides.gitlab.release;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.gitlab.api.GitlabAPI;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for the GitLab API v4 with a single repository, which answers the requests of the plugin over real HTTP, including the
+ * pagination headers and the error responses of GitLab.
+ * <p>
+ * The history of the repository is linear. Commits are added oldest first and tags refer to them by their index. Every endpoint can be slowed down
+ * and answer with injected errors, and the requests are counted per endpoint, so the tests can assert the round trips of a release.
+ */
+class FakeGitlabServer implements AutoCloseable
+{
+    static final int PROJECT_ID = 1;
+
+    private static final Instant FIRST_COMMIT_DATE = Instant.parse("2019-01-01T00:00:00Z");
+
+    private static final Pattern PROJECT_PATH = Pattern.compile("/api/v4/projects/([^/]+)(/.*)?");
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final String namespace;
+
+    private final String name;
+
+    private final List<Commit> commits = Collections.synchronizedList(new ArrayList<>());
+
+    private final Map<String, Tag> tags = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private final Map<Endpoint, AtomicInteger> requestCounts = new EnumMap<>(Endpoint.class);
+
+    private final Map<Endpoint, Long> latencies = new ConcurrentHashMap<>();
+
+    private final Map<Endpoint, Queue<Integer>> injectedErrors = new ConcurrentHashMap<>();
+
+    private volatile String version = "11.6.0";
+
+    /**
+     * Endpoints of the GitLab API which are used by the plugin.
+     */
+    enum Endpoint
+    {
+        VERSION, PROJECT, TAGS, TAG, CREATE_TAG, BRANCH, COMMITS, COMPARE, CREATE_RELEASE, UNKNOWN
+    }
+
+    private FakeGitlabServer(String namespace, String name) throws IOException
+    {
+        this.namespace = namespace;
+        this.name = name;
+        for (Endpoint endpoint : Endpoint.values())
+        {
+            requestCounts.put(endpoint, new AtomicInteger());
+        }
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v4", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Starts the server with the empty repository <code>namespace/name</code> on a free port.
+     */
+    static FakeGitlabServer start(String namespace, String name) throws IOException
+    {
+        return new FakeGitlabServer(namespace, name);
+    }
+
+    /**
+     * @return the host to configure as <code>gitlabHost</code>
+     */
+    String getHost()
+    {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Adds commits on top of the branch, every commit is one minute younger than its parent.
+     *
+     * @param count the number of commits
+     * @param path the path which is changed by the commits
+     */
+    void addCommits(int count, String path)
+    {
+        synchronized (commits)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                int index = commits.size();
+                commits.add(new Commit(String.format("%040x", Integer.valueOf(index + 1)), "Commit " + index, FIRST_COMMIT_DATE.plusSeconds(60L * index), path));
+            }
+        }
+    }
+
+    /**
+     * @param tagName the name of the tag
+     * @param commitIndex the index of the tagged commit, the first commit has the index <code>0</code>
+     */
+    void addTag(String tagName, int commitIndex)
+    {
+        tags.put(tagName, new Tag(tagName, commits.get(commitIndex), null));
+    }
+
+    /**
+     * Adds the given number of snapshot tags on the head of the branch, as created by the builds of a snapshot pipeline.
+     */
+    void addSnapshotTags(int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            addTag("0.0." + i + "-SNAPSHOT", commits.size() - 1);
+        }
+    }
+
+    void setVersion(String version)
+    {
+        this.version = version;
+    }
+
+    /**
+     * Delays every response of the endpoint.
+     */
+    void setLatency(Endpoint endpoint, long millis)
+    {
+        latencies.put(endpoint, Long.valueOf(millis));
+    }
+
+    /**
+     * Answers the next requests of the endpoint with the given error status codes, one status code per request.
+     */
+    void injectErrors(Endpoint endpoint, Integer... statusCodes)
+    {
+        injectedErrors.computeIfAbsent(endpoint, key -> new ConcurrentLinkedQueue<>()).addAll(Arrays.asList(statusCodes));
+    }
+
+    int getRequestCount(Endpoint endpoint)
+    {
+        return requestCounts.get(endpoint).get();
+    }
+
+    int getRequestCount()
+    {
+        return requestCounts.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    /**
+     * @return the commit id of the tag or <code>null</code> if the tag does not exist
+     */
+    String getTaggedCommitId(String tagName)
+    {
+        Tag tag = tags.get(tagName);
+        return tag != null ? tag.commit.id : null;
+    }
+
+    /**
+     * @return the release description of the tag or <code>null</code> if the tag does not exist
+     */
+    String getReleaseDescription(String tagName)
+    {
+        Tag tag = tags.get(tagName);
+        return tag != null ? tag.releaseDescription : null;
+    }
+
+    /**
+     * @return the id of the commit with the given index
+     */
+    String getCommitId(int commitIndex)
+    {
+        return commits.get(commitIndex).id;
+    }
+
+    @Override
+    public void close()
+    {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            String rawPath = exchange.getRequestURI().getRawPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            Endpoint endpoint = resolveEndpoint(exchange.getRequestMethod(), rawPath);
+            requestCounts.get(endpoint).incrementAndGet();
+
+            Long latency = latencies.get(endpoint);
+            if (latency != null)
+            {
+                Thread.sleep(latency.longValue());
+            }
+
+            Queue<Integer> errors = injectedErrors.get(endpoint);
+            Integer error = errors != null ? errors.poll() : null;
+            if (error != null)
+            {
+                respond(exchange, error.intValue(), Collections.emptyMap(), "{\"message\":\"Injected error " + error + "\"}");
+                return;
+            }
+
+            answer(exchange, endpoint, rawPath, query);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            respond(exchange, 500, Collections.emptyMap(), "{\"message\":\"" + e + "\"}");
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private Endpoint resolveEndpoint(String method, String rawPath)
+    {
+        if ("/api/v4/version".equals(rawPath))
+        {
+            return Endpoint.VERSION;
+        }
+
+        Matcher matcher = PROJECT_PATH.matcher(rawPath);
+        if (!matcher.matches())
+        {
+            return Endpoint.UNKNOWN;
+        }
+
+        String resource = matcher.group(2) != null ? matcher.group(2) : "";
+        boolean post = "POST".equals(method);
+        if (resource.isEmpty())
+        {
+            return Endpoint.PROJECT;
+        }
+        if (resource.equals("/repository/tags"))
+        {
+            return post ? Endpoint.CREATE_TAG : Endpoint.TAGS;
+        }
+        if (resource.startsWith("/repository/tags/"))
+        {
+            return Endpoint.TAG;
+        }
+        if (resource.startsWith("/repository/branches/"))
+        {
+            return Endpoint.BRANCH;
+        }
+        if (resource.equals("/repository/commits"))
+        {
+            return Endpoint.COMMITS;
+        }
+        if (resource.equals("/repository/compare"))
+        {
+            return Endpoint.COMPARE;
+        }
+        if (resource.equals("/releases") && post)
+        {
+            return Endpoint.CREATE_RELEASE;
+        }
+        return Endpoint.UNKNOWN;
+    }
+
+    private void answer(HttpExchange exchange, Endpoint endpoint, String rawPath, Map<String, String> query) throws IOException
+    {
+        Matcher matcher = PROJECT_PATH.matcher(rawPath);
+        String projectId = matcher.matches() ? decode(matcher.group(1)) : null;
+        if (endpoint != Endpoint.VERSION && endpoint != Endpoint.UNKNOWN && !(String.valueOf(PROJECT_ID).equals(projectId) || (namespace + "/" + name).equals(projectId)))
+        {
+            respond(exchange, 404, Collections.emptyMap(), "{\"message\":\"404 Project Not Found\"}");
+            return;
+        }
+
+        switch (endpoint)
+        {
+            case VERSION:
+                respond(exchange, 200, Collections.emptyMap(), "{\"version\":\"" + version + "\",\"revision\":\"fake\"}");
+                break;
+            case PROJECT:
+                respond(exchange, 200, Collections.emptyMap(), "{\"id\":" + PROJECT_ID + ",\"name\":\"" + name + "\",\"path_with_namespace\":\"" + namespace + "/" + name
+                        + "\",\"name_with_namespace\":\"" + namespace + " / " + name + "\"}");
+                break;
+            case TAGS:
+                List<Tag> tagList = new ArrayList<>(tags.values());
+                // ordered by update, the most recently created tag first
+                Collections.reverse(tagList);
+                respondPage(exchange, query, tagList.stream().map(Tag::toJson).collect(Collectors.toList()));
+                break;
+            case TAG:
+                Tag tag = tags.get(decode(rawPath.substring(rawPath.lastIndexOf('/') + 1)));
+                if (tag == null)
+                {
+                    respond(exchange, 404, Collections.emptyMap(), "{\"message\":\"404 Tag Not Found\"}");
+                }
+                else
+                {
+                    respond(exchange, 200, Collections.emptyMap(), tag.toJson());
+                }
+                break;
+            case CREATE_TAG:
+                Map<?, ?> tagRequest = GitlabAPI.MAPPER.readValue(readBody(exchange), Map.class);
+                createTag(exchange, (String) tagRequest.get("tag_name"), (String) tagRequest.get("ref"), (String) tagRequest.get("release_description"), false);
+                break;
+            case CREATE_RELEASE:
+                Map<?, ?> releaseRequest = GitlabAPI.MAPPER.readValue(readBody(exchange), Map.class);
+                createTag(exchange, (String) releaseRequest.get("tag_name"), (String) releaseRequest.get("ref"), (String) releaseRequest.get("description"), true);
+                break;
+            case BRANCH:
+                Commit head = commits.get(commits.size() - 1);
+                respond(exchange, 200, Collections.emptyMap(), "{\"name\":\"" + decode(rawPath.substring(rawPath.lastIndexOf('/') + 1)) + "\",\"commit\":" + head.toJson() + "}");
+                break;
+            case COMMITS:
+                respondPage(exchange, query, listCommits(query).stream().map(Commit::toJson).collect(Collectors.toList()));
+                break;
+            case COMPARE:
+                // the compare api lists the oldest commit first
+                List<Commit> compared = range(indexOf(query.get("from")) + 1, indexOf(query.get("to")));
+                respond(exchange, 200, Collections.emptyMap(),
+                        "{\"commits\":[" + compared.stream().map(Commit::toJson).collect(Collectors.joining(",")) + "],\"diffs\":[],\"compare_timeout\":false}");
+                break;
+            default:
+                respond(exchange, 404, Collections.emptyMap(), "{\"message\":\"404 Not Found\"}");
+        }
+    }
+
+    private void createTag(HttpExchange exchange, String tagName, String ref, String description, boolean release) throws IOException
+    {
+        int commitIndex = indexOf(ref);
+        if (commitIndex < 0)
+        {
+            respond(exchange, 400, Collections.emptyMap(), "{\"message\":\"Target " + ref + " is invalid\"}");
+            return;
+        }
+
+        Tag tag = new Tag(tagName, commits.get(commitIndex), description);
+        if (tags.putIfAbsent(tagName, tag) != null)
+        {
+            respond(exchange, 400, Collections.emptyMap(), "{\"message\":\"Tag " + tagName + " already exists\"}");
+            return;
+        }
+        respond(exchange, 201, Collections.emptyMap(), release ? "{\"name\":\"" + tagName + "\",\"tag_name\":\"" + tagName + "\"}" : tag.toJson());
+    }
+
+    /**
+     * Lists the commits of the <code>ref_name</code> (a commit or a range <code>from..to</code>), newest first, filtered by <code>since</code> and
+     * <code>path</code>.
+     */
+    private List<Commit> listCommits(Map<String, String> query)
+    {
+        String ref = query.get("ref_name");
+        int separator = ref.indexOf("..");
+        List<Commit> listed = separator >= 0 ? range(indexOf(ref.substring(0, separator)) + 1, indexOf(ref.substring(separator + 2))) : range(0, indexOf(ref));
+        Collections.reverse(listed);
+
+        Instant since = query.containsKey("since") ? LocalDateTime.parse(query.get("since")).toInstant(ZoneOffset.UTC) : null;
+        String path = query.get("path");
+        return listed.stream()
+                .filter(commit -> since == null || !commit.date.isBefore(since))
+                .filter(commit -> path == null || commit.path.equals(path) || commit.path.startsWith(path + "/"))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the commits from the first to the last index (inclusive), oldest first
+     */
+    private List<Commit> range(int first, int last)
+    {
+        synchronized (commits)
+        {
+            return first <= last && last >= 0 ? new ArrayList<>(commits.subList(Math.max(first, 0), last + 1)) : new ArrayList<>();
+        }
+    }
+
+    private int indexOf(String ref)
+    {
+        synchronized (commits)
+        {
+            if ("master".equals(ref))
+            {
+                return commits.size() - 1;
+            }
+            for (int i = 0; i < commits.size(); i++)
+            {
+                if (commits.get(i).id.equals(ref))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Responds a page of the listing with the pagination headers of GitLab, the default page size of GitLab is 20.
+     */
+    private static void respondPage(HttpExchange exchange, Map<String, String> query, List<String> elements) throws IOException
+    {
+        int perPage = query.containsKey("per_page") ? Integer.parseInt(query.get("per_page")) : 20;
+        int page = query.containsKey("page") ? Integer.parseInt(query.get("page")) : 1;
+        int totalPages = Math.max(1, (elements.size() + perPage - 1) / perPage);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("X-Page", String.valueOf(page));
+        headers.put("X-Per-Page", String.valueOf(perPage));
+        headers.put("X-Next-Page", page < totalPages ? String.valueOf(page + 1) : "");
+        headers.put("X-Total", String.valueOf(elements.size()));
+        headers.put("X-Total-Pages", String.valueOf(totalPages));
+
+        int from = Math.min((page - 1) * perPage, elements.size());
+        respond(exchange, 200, headers, "[" + String.join(",", elements.subList(from, Math.min(from + perPage, elements.size()))) + "]");
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, Map<String, String> headers, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        headers.forEach((headerName, value) -> exchange.getResponseHeaders().add(headerName, value));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody())
+        {
+            outputStream.write(bytes);
+        }
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException
+    {
+        try (InputStream inputStream = exchange.getRequestBody())
+        {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0)
+            {
+                body.write(buffer, 0, read);
+            }
+            return body.toByteArray();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException
+    {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery != null)
+        {
+            for (String parameter : rawQuery.split("&"))
+            {
+                int separator = parameter.indexOf('=');
+                if (separator > 0)
+                {
+                    query.put(decode(parameter.substring(0, separator)), decode(parameter.substring(separator + 1)));
+                }
+            }
+        }
+        return query;
+    }
+
+    private static String decode(String value) throws UnsupportedEncodingException
+    {
+        return URLDecoder.decode(value, "UTF-8");
+    }
+
+    private static String quote(String value)
+    {
+        return value == null ? "null" : "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private static class Commit
+    {
+        private final String id;
+
+        private final String title;
+
+        private final Instant date;
+
+        private final String path;
+
+        Commit(String id, String title, Instant date, String path)
+        {
+            this.id = id;
+            this.title = title;
+            this.date = date;
+            this.path = path;
+        }
+
+        String toJson()
+        {
+            return "{\"id\":\"" + id + "\",\"short_id\":\"" + id.substring(0, 8) + "\",\"title\":" + quote(title) + ",\"message\":" + quote(title)
+                    + ",\"author_name\":\"Author\",\"committed_date\":\"" + date + "\",\"created_at\":\"" + date + "\"}";
+        }
+    }
+
+    private static class Tag
+    {
+        private final String name;
+
+        private final Commit commit;
+
+        private final String releaseDescription;
+
+        Tag(String name, Commit commit, String releaseDescription)
+        {
+            this.name = name;
+            this.commit = commit;
+            this.releaseDescription = releaseDescription;
+        }
+
+        String toJson()
+        {
+            return "{\"name\":" + quote(name) + ",\"message\":\"\",\"commit\":" + commit.toJson() + ",\"release\":"
+                    + (releaseDescription != null ? "{\"tag_name\":" + quote(name) + ",\"description\":" + quote(releaseDescription) + "}" : "null") + "}";
+        }
+    }
+}
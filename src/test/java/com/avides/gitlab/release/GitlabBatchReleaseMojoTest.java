@@ -0,0 +1,155 @@
+package com.avides.gitlab.release;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.easymock.EasyMock.anyObject;
+import static org.powermock.api.easymock.PowerMock.expectLastCall;
+import static org.powermock.api.easymock.PowerMock.mockStatic;
+import static org.powermock.api.easymock.PowerMock.replayAll;
+import static org.powermock.api.easymock.PowerMock.verifyAll;
+
+import java.io.FileNotFoundException;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.easymock.TestSubject;
+import org.gitlab.api.models.GitlabProject;
+import org.gitlab.api.models.GitlabTag;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.easymock.annotation.MockStrict;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(GitlabClient.class)
+public class GitlabBatchReleaseMojoTest
+{
+    private static final String VERSION = "1.0.0-RELEASE";
+
+    @TestSubject
+    private final GitlabBatchReleaseMojo gitlabBatchReleaseMojo = new GitlabBatchReleaseMojo();
+
+    @MockStrict
+    private GitlabClient gitlabClient;
+
+    @MockStrict
+    private GitlabProject gitlabProject;
+
+    @MockStrict
+    private GitlabTag gitlabTag;
+
+    @Before
+    public void setUp()
+    {
+        gitlabBatchReleaseMojo.setGitlabHost("GITLAB_HOST");
+        gitlabBatchReleaseMojo.setGitlabAccessToken("GITLAB_ACCESS_TOKEN");
+        gitlabBatchReleaseMojo.setGitlabVersion(VERSION);
+        gitlabBatchReleaseMojo.setGitlabParallelism(1);
+        gitlabBatchReleaseMojo.setSession(new MavenSession(null, null, new DefaultMavenExecutionRequest(), null));
+    }
+
+    @Test
+    public void testExecute() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject("NAMESPACE", "NAME");
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn("NAMESPACE/NAME");
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + VERSION, GitlabTag.class);
+        expectLastCall().andReturn(gitlabTag);
+
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject("NAMESPACE/SUBGROUP", "MISSING");
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        replayAll();
+
+        gitlabBatchReleaseMojo.setGitlabRepositories(asList("NAMESPACE/NAME", "INVALID", " NAMESPACE/SUBGROUP/MISSING "));
+
+        assertThatThrownBy(gitlabBatchReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to release 2 of 3 repositories");
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithGroup() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getGroupProjects("GROUP");
+        expectLastCall().andReturn(singletonList(gitlabProject));
+
+        gitlabProject.getPathWithNamespace();
+        expectLastCall().andReturn("GROUP/NAME");
+
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn("GROUP/NAME");
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + VERSION, GitlabTag.class);
+        expectLastCall().andReturn(gitlabTag);
+
+        replayAll();
+
+        gitlabBatchReleaseMojo.setGitlabGroup("GROUP");
+        gitlabBatchReleaseMojo.execute();
+
+        verifyAll();
+        // the configuration is never modified by the execution
+        assertThat(gitlabBatchReleaseMojo.getProjectVersion()).isNull();
+    }
+
+    @Test
+    public void testExecuteWithPreRelease() throws Exception
+    {
+        replayAll();
+
+        gitlabBatchReleaseMojo.setGitlabVersion("1.0.0-SNAPSHOT");
+        gitlabBatchReleaseMojo.setGitlabRepositories(asList("NAMESPACE/NAME", "NAMESPACE/OTHER_NAME"));
+        gitlabBatchReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testResolvePreflightParallelism()
+    {
+        gitlabBatchReleaseMojo.setGitlabParallelism(3);
+
+        // the repositories are released concurrently, so a release does not start further threads
+        assertThat(gitlabBatchReleaseMojo.resolvePreflightParallelism()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExecuteWithoutRepositories() throws Exception
+    {
+        replayAll();
+
+        gitlabBatchReleaseMojo.execute();
+
+        verifyAll();
+    }
+}
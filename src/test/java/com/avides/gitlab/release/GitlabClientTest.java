@@ -0,0 +1,178 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.gitlab.api.GitlabAPIException;
+import org.gitlab.api.models.GitlabProject;
+import org.gitlab.api.models.GitlabRelease;
+import org.gitlab.api.models.GitlabTag;
+import org.junit.Test;
+
+public class GitlabClientTest
+{
+    private final List<GitlabRequest> requests = new ArrayList<>();
+
+    @Test
+    public void testGetProject() throws Exception
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(200, emptyMap(), "{\"id\":1,\"name_with_namespace\":\"NAMESPACE / NAME\"}"), Deadline.NONE);
+
+        GitlabProject project = gitlabClient.getProject("NAMESPACE", "NAME");
+
+        assertThat(project.getId()).isEqualTo(1);
+        assertThat(project.getNameWithNamespace()).isEqualTo("NAMESPACE / NAME");
+        assertThat(requests).extracting(GitlabRequest::getMethod, GitlabRequest::getPath).containsExactly(tuple("GET", "/projects/NAMESPACE%2FNAME"));
+    }
+
+    @Test
+    public void testGetWithDeadline() throws Exception
+    {
+        Deadline deadline = Deadline.after(1000);
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(200, emptyMap(), "{\"name\":\"1.0.0\"}"), deadline);
+
+        gitlabClient.get("/projects/1/repository/tags/1.0.0", GitlabTag.class);
+
+        assertThat(requests).extracting(GitlabRequest::getDeadline).containsExactly(deadline);
+    }
+
+    @Test
+    public void testGetWithNotFound()
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(404, emptyMap(), "{\"message\":\"404 Tag Not Found\"}"), Deadline.NONE);
+
+        assertThatThrownBy(() -> gitlabClient.get("/projects/1/repository/tags/1.0.0", GitlabTag.class)).isInstanceOf(FileNotFoundException.class);
+    }
+
+    @Test
+    public void testGetWithError()
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(500, emptyMap(), "Internal Server Error"), Deadline.NONE);
+
+        assertThatThrownBy(() -> gitlabClient.get("/projects/1/repository/tags/1.0.0", GitlabTag.class))
+                .isInstanceOf(GitlabAPIException.class)
+                .hasMessage("Internal Server Error")
+                .matches(e -> ((GitlabAPIException) e).getResponseCode() == 500);
+    }
+
+    @Test
+    public void testAsIterator()
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(request ->
+        {
+            requests.add(request);
+            String nextPage = request.getPath().endsWith("page=2") ? "" : String.valueOf(requests.size() + 1);
+            return response(200, singletonMap("X-Next-Page", singletonList(nextPage)), "[{\"name\":\"" + requests.size() + ".0.0\"}]");
+        }, Deadline.NONE);
+
+        Iterator<GitlabTag[]> pages = gitlabClient.asIterator("/projects/1/repository/tags?per_page=1", GitlabTag[].class);
+
+        assertThat(pages.next()).extracting(GitlabTag::getName).containsExactly("1.0.0");
+        assertThat(pages.hasNext()).isTrue();
+        assertThat(pages.next()).extracting(GitlabTag::getName).containsExactly("2.0.0");
+        assertThat(pages.hasNext()).isFalse();
+        assertThat(requests).extracting(GitlabRequest::getPath).containsExactly("/projects/1/repository/tags?per_page=1", "/projects/1/repository/tags?per_page=1&page=2");
+    }
+
+    @Test
+    public void testAsIteratorWithError()
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(500, emptyMap(), "Internal Server Error"), Deadline.NONE);
+
+        Iterator<GitlabTag[]> pages = gitlabClient.asIterator("/projects/1/repository/tags", GitlabTag[].class);
+
+        assertThatThrownBy(pages::next).isInstanceOf(UncheckedIOException.class).hasCauseInstanceOf(GitlabAPIException.class);
+    }
+
+    @Test
+    public void testGetGroupProjects() throws Exception
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(200, emptyMap(), "[{\"id\":1,\"path_with_namespace\":\"GROUP/SUBGROUP/NAME\"}]"), Deadline.NONE);
+
+        List<GitlabProject> projects = gitlabClient.getGroupProjects("GROUP/SUBGROUP");
+
+        assertThat(projects).extracting(GitlabProject::getPathWithNamespace).containsExactly("GROUP/SUBGROUP/NAME");
+        assertThat(requests).extracting(GitlabRequest::getPath)
+                .containsExactly("/groups/GROUP%2FSUBGROUP/projects?include_subgroups=true&archived=false&simple=true&per_page=100");
+    }
+
+    @Test
+    public void testAddTag() throws Exception
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(201, emptyMap(), "{\"name\":\"1.0.0\"}"), Deadline.NONE);
+        GitlabProject project = new GitlabProject();
+        project.setId(Integer.valueOf(1));
+
+        GitlabTag tag = gitlabClient.addTag(project, "1.0.0", "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+
+        assertThat(tag.getName()).isEqualTo("1.0.0");
+        assertThat(requests).extracting(GitlabRequest::getMethod, GitlabRequest::getPath).containsExactly(tuple("POST", "/projects/1/repository/tags"));
+        assertThat(new String(requests.get(0).getBody(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"tag_name\":\"1.0.0\",\"ref\":\"COMMIT_REF\",\"message\":\"\",\"release_description\":\"* COMMIT_TITLE (COMMIT_REF)\\n\"}");
+    }
+
+    @Test
+    public void testGetVersion() throws Exception
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(200, emptyMap(), "{\"version\":\"11.7.0-ee\",\"revision\":\"REVISION\"}"), Deadline.NONE);
+
+        assertThat(gitlabClient.getVersion().getVersion()).isEqualTo("11.7.0-ee");
+        assertThat(requests).extracting(GitlabRequest::getMethod, GitlabRequest::getPath).containsExactly(tuple("GET", "/version"));
+    }
+
+    @Test
+    public void testCreateRelease() throws Exception
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(201, emptyMap(), "{\"name\":\"1.0.0\",\"tag_name\":\"1.0.0\",\"description\":\"DESCRIPTION\"}"),
+                Deadline.NONE);
+        GitlabProject project = new GitlabProject();
+        project.setId(Integer.valueOf(1));
+
+        GitlabRelease release = gitlabClient.createRelease(project, "1.0.0", "COMMIT_REF", "* COMMIT_TITLE (COMMIT_REF)\n",
+                singletonList(new GitlabReleaseLink("artifact.jar", "https://nexus/artifact.jar")));
+
+        assertThat(release.getTagName()).isEqualTo("1.0.0");
+        assertThat(requests).extracting(GitlabRequest::getMethod, GitlabRequest::getPath).containsExactly(tuple("POST", "/projects/1/releases"));
+        assertThat(new String(requests.get(0).getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"1.0.0\",\"tag_name\":\"1.0.0\",\"ref\":\"COMMIT_REF\"," +
+                "\"description\":\"* COMMIT_TITLE (COMMIT_REF)\\n\",\"assets\":{\"links\":[{\"name\":\"artifact.jar\",\"url\":\"https://nexus/artifact.jar\"}]}}");
+    }
+
+    @Test
+    public void testCreateReleaseWithoutLinks() throws Exception
+    {
+        GitlabClient gitlabClient = GitlabClient.connect(respondWith(201, emptyMap(), "{\"tag_name\":\"1.0.0\"}"), Deadline.NONE);
+        GitlabProject project = new GitlabProject();
+        project.setId(Integer.valueOf(1));
+
+        gitlabClient.createRelease(project, "1.0.0", "COMMIT_REF", "", null);
+
+        assertThat(new String(requests.get(0).getBody(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"name\":\"1.0.0\",\"tag_name\":\"1.0.0\",\"ref\":\"COMMIT_REF\",\"description\":\"\"}");
+    }
+
+    private GitlabTransport respondWith(int statusCode, Map<String, List<String>> headers, String body)
+    {
+        return request ->
+        {
+            requests.add(request);
+            return response(statusCode, headers, body);
+        };
+    }
+
+    private static GitlabResponse response(int statusCode, Map<String, List<String>> headers, String body)
+    {
+        return new GitlabResponse(statusCode, headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,204 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.easymock.EasyMock.anyObject;
+import static org.powermock.api.easymock.PowerMock.expectLastCall;
+import static org.powermock.api.easymock.PowerMock.mockStatic;
+import static org.powermock.api.easymock.PowerMock.replayAll;
+import static org.powermock.api.easymock.PowerMock.verifyAll;
+
+import java.io.File;
+import java.net.ConnectException;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.easymock.TestSubject;
+import org.gitlab.api.GitlabAPIException;
+import org.gitlab.api.models.GitlabProject;
+import org.gitlab.api.models.GitlabTag;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.powermock.api.easymock.annotation.MockStrict;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(GitlabClient.class)
+public class GitlabFlushMojoTest
+{
+    private static final String GITLAB_HOST = "GITLAB_HOST";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @TestSubject
+    private final GitlabFlushMojo gitlabFlushMojo = new GitlabFlushMojo();
+
+    @MockStrict
+    private GitlabClient gitlabClient;
+
+    @MockStrict
+    private GitlabProject gitlabProject;
+
+    @MockStrict
+    private GitlabTag addedGitlabTag;
+
+    private ReleaseSpool spool;
+
+    @Before
+    public void setUp()
+    {
+        File spoolDirectory = temporaryFolder.getRoot();
+        spool = new ReleaseSpool(spoolDirectory.toPath());
+        gitlabFlushMojo.setGitlabHost(GITLAB_HOST);
+        gitlabFlushMojo.setGitlabAccessToken("GITLAB_ACCESS_TOKEN");
+        gitlabFlushMojo.setGitlabSpoolDirectory(spoolDirectory);
+        gitlabFlushMojo.setGitlabParallelism(1);
+    }
+
+    @Test
+    public void testExecute() throws Exception
+    {
+        spool.add(createRequest(GITLAB_HOST, "1.0.0"));
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject("NAMESPACE", "NAME");
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn("NAMESPACE/NAME");
+
+        gitlabClient.addTag(gitlabProject, "1.0.0", "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn("1.0.0");
+
+        replayAll();
+
+        gitlabFlushMojo.execute();
+
+        verifyAll();
+        assertThat(spool.list()).isEmpty();
+    }
+
+    @Test
+    public void testExecuteWithDryRun() throws Exception
+    {
+        spool.add(createRequest(GITLAB_HOST, "1.0.0"));
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject("NAMESPACE", "NAME");
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn("NAMESPACE/NAME");
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        replayAll();
+
+        gitlabFlushMojo.setGitlabDryRun(true);
+        gitlabFlushMojo.execute();
+
+        verifyAll();
+        // the planned release stays in the spool
+        assertThat(spool.list()).hasSize(1);
+    }
+
+    @Test
+    public void testExecuteWithTagAlreadyExists() throws Exception
+    {
+        spool.add(createRequest(GITLAB_HOST, "1.0.0"));
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject("NAMESPACE", "NAME");
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn("NAMESPACE/NAME");
+
+        gitlabClient.addTag(gitlabProject, "1.0.0", "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andThrow(new GitlabAPIException("{\"message\":\"Tag 1.0.0 already exists\"}", Integer.valueOf(400), null));
+
+        replayAll();
+
+        gitlabFlushMojo.execute();
+
+        verifyAll();
+        assertThat(spool.list()).isEmpty();
+    }
+
+    @Test
+    public void testExecuteWithFailedRelease() throws Exception
+    {
+        Path file = spool.add(createRequest(GITLAB_HOST, "1.0.0"));
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject("NAMESPACE", "NAME");
+        expectLastCall().andThrow(new ConnectException("Connection refused"));
+
+        replayAll();
+
+        assertThatThrownBy(gitlabFlushMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to flush 1 of 1 spooled release(s)");
+
+        verifyAll();
+        assertThat(spool.list()).containsExactly(file);
+    }
+
+    @Test
+    public void testExecuteWithReleaseOfAnotherHost() throws Exception
+    {
+        Path file = spool.add(createRequest("OTHER_GITLAB_HOST", "1.0.0"));
+
+        replayAll();
+
+        gitlabFlushMojo.execute();
+
+        verifyAll();
+        assertThat(spool.list()).containsExactly(file);
+    }
+
+    @Test
+    public void testExecuteWithEmptySpool() throws Exception
+    {
+        replayAll();
+
+        gitlabFlushMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithoutSpoolDirectory() throws Exception
+    {
+        replayAll();
+
+        gitlabFlushMojo.setGitlabSpoolDirectory(null);
+        gitlabFlushMojo.execute();
+
+        verifyAll();
+    }
+
+    private static ReleaseRequest createRequest(String host, String version)
+    {
+        return new ReleaseRequest(host, "NAMESPACE", "NAME", version, "COMMIT_REF", "* COMMIT_TITLE (COMMIT_REF)\n", null);
+    }
+}
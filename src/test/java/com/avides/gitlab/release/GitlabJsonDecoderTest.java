@@ -0,0 +1,93 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
+import org.gitlab.api.models.GitlabCommit;
+import org.gitlab.api.models.GitlabCommitComparison;
+import org.gitlab.api.models.GitlabProject;
+import org.gitlab.api.models.GitlabTag;
+import org.junit.Test;
+
+public class GitlabJsonDecoderTest
+{
+    private static final String COMMIT = "{\"id\":\"COMMIT_REF\",\"short_id\":\"COMMIT\",\"title\":\"COMMIT_TITLE\",\"message\":\"COMMIT_MESSAGE\"," +
+            "\"author_name\":\"AUTHOR\",\"parent_ids\":[\"PARENT_REF\"],\"stats\":{\"additions\":1,\"deletions\":2}," +
+            "\"committed_date\":\"2018-01-01T12:00:00.000Z\",\"last_pipeline\":null}";
+
+    @Test
+    public void testDecodeCommits() throws Exception
+    {
+        GitlabCommit[] commits = GitlabJsonDecoder.decode(bytes("[" + COMMIT + "," + COMMIT.replace("COMMIT_REF", "OTHER_REF") + "]"), GitlabCommit[].class);
+
+        assertThat(commits).extracting(GitlabCommit::getId).containsExactly("COMMIT_REF", "OTHER_REF");
+        assertThat(commits[0].getTitle()).isEqualTo("COMMIT_TITLE");
+        assertThat(commits[0].getCommittedDate()).isEqualTo(Date.from(Instant.parse("2018-01-01T12:00:00Z")));
+        assertThat(commits[0].getMessage()).isNull();
+        assertThat(commits[0].getParentIds()).isNull();
+        assertThat(commits[0].getAuthorName()).isNull();
+    }
+
+    @Test
+    public void testDecodeTags() throws Exception
+    {
+        GitlabTag[] tags = GitlabJsonDecoder.decode(bytes("[{\"name\":\"1.0.0\",\"message\":\"MESSAGE\",\"release\":{\"tag_name\":\"1.0.0\",\"description\":\"DESCRIPTION\"}," +
+                "\"commit\":{\"id\":\"COMMIT_REF\",\"message\":\"COMMIT_MESSAGE\",\"committed_date\":\"2018-01-01T12:00:00.000+01:00\"}},{\"name\":\"0.1.0\",\"commit\":null}]"),
+                GitlabTag[].class);
+
+        assertThat(tags).extracting(GitlabTag::getName).containsExactly("1.0.0", "0.1.0");
+        assertThat(tags[0].getCommit().getId()).isEqualTo("COMMIT_REF");
+        assertThat(tags[0].getCommit().getCommittedDate()).isEqualTo(Date.from(Instant.parse("2018-01-01T11:00:00Z")));
+        assertThat(tags[0].getCommit().getMessage()).isNull();
+        assertThat(tags[0].getMessage()).isNull();
+        assertThat(tags[0].getRelease()).isNull();
+        assertThat(tags[1].getCommit()).isNull();
+    }
+
+    @Test
+    public void testDecodeTag() throws Exception
+    {
+        GitlabTag tag = GitlabJsonDecoder.decode(bytes("{\"name\":\"1.0.0\",\"commit\":{\"id\":\"COMMIT_REF\"}}"), GitlabTag.class);
+
+        assertThat(tag.getName()).isEqualTo("1.0.0");
+        assertThat(tag.getCommit().getId()).isEqualTo("COMMIT_REF");
+    }
+
+    @Test
+    public void testDecodeComparison() throws Exception
+    {
+        GitlabCommitComparison comparison = GitlabJsonDecoder.decode(bytes("{\"commit\":" + COMMIT + ",\"commits\":[" + COMMIT + "]," +
+                "\"diffs\":[{\"diff\":\"DIFF\",\"new_path\":\"NEW_PATH\"}],\"compare_same_ref\":false}"), GitlabCommitComparison.class);
+
+        assertThat(comparison.getCommits()).extracting(GitlabCommit::getId, GitlabCommit::getTitle).containsExactly(tuple("COMMIT_REF", "COMMIT_TITLE"));
+        assertThat(comparison.getCommit()).isNull();
+        assertThat(comparison.getDiffs()).isNull();
+    }
+
+    @Test
+    public void testDecodeOtherType() throws Exception
+    {
+        GitlabProject project = GitlabJsonDecoder.decode(bytes("{\"id\":1,\"name_with_namespace\":\"NAMESPACE / NAME\",\"unknown\":true}"), GitlabProject.class);
+
+        assertThat(project.getId()).isEqualTo(1);
+        assertThat(project.getNameWithNamespace()).isEqualTo("NAMESPACE / NAME");
+    }
+
+    @Test
+    public void testDecodeWithUnexpectedJson()
+    {
+        assertThatThrownBy(() -> GitlabJsonDecoder.decode(bytes("{\"message\":\"ERROR\"}"), GitlabCommit[].class)).isInstanceOf(IOException.class)
+                .hasMessage("Unexpected JSON: expected START_ARRAY but was START_OBJECT");
+    }
+
+    private static byte[] bytes(String json)
+    {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
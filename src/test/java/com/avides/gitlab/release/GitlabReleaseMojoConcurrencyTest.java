@@ -0,0 +1,322 @@
+package com.avides.gitlab.release;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.junit.After;
+import org.junit.Test;
+
+public class GitlabReleaseMojoConcurrencyTest
+{
+    private static final String GITLAB_HOST = "https://gitlab.concurrency.test";
+
+    private static final String GITLAB_ACCESS_TOKEN = "ACCESS_TOKEN";
+
+    private static final String REPOSITORY_NAMESPACE = "NAMESPACE";
+
+    private static final String PROJECT_VERSION = "1.0.0";
+
+    private static final int EXECUTIONS = 32;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    private final FakeGitlab fakeGitlab = new FakeGitlab();
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testParallelReleasesOfDifferentRepositories() throws Exception
+    {
+        MavenSession session = createSession(new DefaultMavenExecutionRequest(), createProject("module"));
+
+        List<GitlabReleaseMojo> mojos = new ArrayList<>();
+        for (int i = 0; i < EXECUTIONS; i++)
+        {
+            GitlabReleaseMojo mojo = createMojo(session);
+            mojo.setGitlabRepositoryName("NAME-" + i);
+            mojos.add(mojo);
+        }
+
+        executeInParallel(mojos);
+
+        assertThat(fakeGitlab.getCreatedTags()).hasSize(EXECUTIONS);
+        for (int i = 0; i < EXECUTIONS; i++)
+        {
+            assertThat(fakeGitlab.getCreatedTags()).contains(i + ":" + PROJECT_VERSION + ":HEAD-" + i + ":* COMMIT-" + i + " (COMMIT-" + i + ")\n");
+        }
+        // the configuration of the mojos is never modified by the execution
+        assertThat(mojos).allSatisfy(mojo ->
+        {
+            assertThat(mojo.getGitlabBranchName()).isNull();
+            assertThat(mojo.getGitlabRepositoryNamespace()).isNull();
+        });
+        assertThat(fakeGitlab.getMaxConcurrentRequests()).isGreaterThan(1);
+    }
+
+    @Test
+    public void testParallelReleasesOfSameVersion() throws Exception
+    {
+        MavenSession session = createSession(new DefaultMavenExecutionRequest(), createProject("module"));
+
+        List<GitlabReleaseMojo> mojos = new ArrayList<>();
+        for (int i = 0; i < EXECUTIONS; i++)
+        {
+            GitlabReleaseMojo mojo = createMojo(session);
+            mojo.setGitlabRepositoryName("NAME-0");
+            mojo.setGitlabOptimisticTagging(true);
+            mojos.add(mojo);
+        }
+
+        executeInParallel(mojos);
+
+        assertThat(fakeGitlab.getCreatedTags()).containsExactly("0:" + PROJECT_VERSION + ":HEAD-0:* COMMIT-0 (COMMIT-0)\n");
+        // the project is resolved at most once per thread which raced for it
+        assertThat(fakeGitlab.getRequestCount("GET /projects/" + REPOSITORY_NAMESPACE + "%2FNAME-0")).isBetween(1, EXECUTIONS);
+    }
+
+    @Test
+    public void testParallelReleasesOfSameVersionWithoutOptimisticTagging() throws Exception
+    {
+        MavenSession session = createSession(new DefaultMavenExecutionRequest(), createProject("module"));
+
+        List<GitlabReleaseMojo> mojos = new ArrayList<>();
+        for (int i = 0; i < EXECUTIONS; i++)
+        {
+            GitlabReleaseMojo mojo = createMojo(session);
+            mojo.setGitlabRepositoryName("NAME-0");
+            mojos.add(mojo);
+        }
+
+        executeInParallel(mojos);
+
+        assertThat(fakeGitlab.getCreatedTags()).containsExactly("0:" + PROJECT_VERSION + ":HEAD-0:* COMMIT-0 (COMMIT-0)\n");
+        // the releases wait for the first one, which resolves the project and adds the tag
+        assertThat(fakeGitlab.getRequestCount("GET /projects/" + REPOSITORY_NAMESPACE + "%2FNAME-0")).isEqualTo(1);
+        assertThat(fakeGitlab.getRequestCount("POST /projects/0/repository/tags")).isEqualTo(1);
+    }
+
+    @Test
+    public void testParallelReactorWithReleaseAtEnd() throws Exception
+    {
+        List<MavenProject> projects = new ArrayList<>();
+        for (int i = 0; i < EXECUTIONS; i++)
+        {
+            projects.add(createProject("module-" + i));
+        }
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setDegreeOfConcurrency(4);
+        MavenSession session = createSession(request, projects.toArray(new MavenProject[0]));
+
+        List<GitlabReleaseMojo> mojos = new ArrayList<>();
+        for (MavenProject project : projects)
+        {
+            // every module of a parallel build works on its own clone of the session
+            MavenSession moduleSession = session.clone();
+            moduleSession.setCurrentProject(project);
+            GitlabReleaseMojo mojo = createMojo(moduleSession);
+            mojo.setGitlabRepositoryName("NAME-0");
+            mojo.setGitlabReleaseAtEnd(true);
+            mojos.add(mojo);
+        }
+
+        executeInParallel(mojos);
+
+        assertThat(fakeGitlab.getCreatedTags()).containsExactly("0:" + PROJECT_VERSION + ":HEAD-0:* COMMIT-0 (COMMIT-0)\n");
+        assertThat(GitlabSessionCache.of(session).drainDeferredReleases()).isEmpty();
+    }
+
+    private void executeInParallel(List<GitlabReleaseMojo> mojos) throws Exception
+    {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> executions = new ArrayList<>();
+        for (GitlabReleaseMojo mojo : mojos)
+        {
+            executions.add(executor.submit((Callable<Void>) () ->
+            {
+                start.await();
+                mojo.execute();
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<Void> execution : executions)
+        {
+            execution.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private GitlabReleaseMojo createMojo(MavenSession session)
+    {
+        GitlabSessionCache.of(session).getTransport(GITLAB_HOST, GITLAB_ACCESS_TOKEN, () -> fakeGitlab);
+
+        GitlabReleaseMojo mojo = new GitlabReleaseMojo();
+        mojo.setGitlabHost(GITLAB_HOST);
+        mojo.setGitlabAccessToken(GITLAB_ACCESS_TOKEN);
+        mojo.setProjectScmUrl(GITLAB_HOST + "/" + REPOSITORY_NAMESPACE + "/NAME.git");
+        mojo.setProjectVersion(PROJECT_VERSION);
+        mojo.setGitlabParallelism(3);
+        mojo.setSession(session);
+        return mojo;
+    }
+
+    private static MavenSession createSession(MavenExecutionRequest request, MavenProject... projects)
+    {
+        MavenSession session = new MavenSession(null, request, null, asList(projects));
+        session.setCurrentProject(projects[0]);
+        return session;
+    }
+
+    private static MavenProject createProject(String artifactId)
+    {
+        Model model = new Model();
+        model.setGroupId("com.avides");
+        model.setArtifactId(artifactId);
+        model.setVersion(PROJECT_VERSION);
+        return new MavenProject(model);
+    }
+
+    /**
+     * Answers the requests of a release like GitLab, the id of the project <code>NAME-i</code> is <code>i</code>. Tags are created atomically, so
+     * only the first of concurrent requests for the same tag succeeds.
+     */
+    private static class FakeGitlab implements GitlabTransport
+    {
+        private static final Pattern PROJECT = Pattern.compile("/projects/" + REPOSITORY_NAMESPACE + "%2FNAME-(\\d+)");
+
+        private static final Pattern PROJECT_ID = Pattern.compile("/projects/(\\d+)/.*");
+
+        private final Set<String> createdTags = ConcurrentHashMap.newKeySet();
+
+        private final Set<String> createdTagNames = ConcurrentHashMap.newKeySet();
+
+        private final ConcurrentHashMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+
+        private final AtomicInteger concurrentRequests = new AtomicInteger();
+
+        private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+        @Override
+        public GitlabResponse execute(GitlabRequest request) throws IOException
+        {
+            requestCounts.computeIfAbsent(request.getMethod() + " " + request.getPath(), key -> new AtomicInteger()).incrementAndGet();
+            maxConcurrentRequests.accumulateAndGet(concurrentRequests.incrementAndGet(), Math::max);
+            try
+            {
+                Thread.sleep(2);
+                return answer(request);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            finally
+            {
+                concurrentRequests.decrementAndGet();
+            }
+        }
+
+        private GitlabResponse answer(GitlabRequest request)
+        {
+            Matcher project = PROJECT.matcher(request.getPath());
+            if (project.matches())
+            {
+                return response(200, "{\"id\":" + project.group(1) + ",\"name_with_namespace\":\"NAMESPACE / NAME-" + project.group(1) + "\"}");
+            }
+
+            Matcher projectId = PROJECT_ID.matcher(request.getPath());
+            if (!projectId.matches())
+            {
+                return response(404, "{\"message\":\"404 Not Found\"}");
+            }
+
+            String id = projectId.group(1);
+            String path = request.getPath().substring(("/projects/" + id).length());
+            if ("POST".equals(request.getMethod()) && path.equals("/repository/tags"))
+            {
+                String body = new String(request.getBody(), StandardCharsets.UTF_8);
+                String tagName = value(body, "tag_name");
+                if (!createdTagNames.add(id + ":" + tagName))
+                {
+                    return response(400, "{\"message\":\"Tag " + tagName + " already exists\"}");
+                }
+                createdTags.add(id + ":" + tagName + ":" + value(body, "ref") + ":" + value(body, "release_description").replace("\\n", "\n"));
+                return response(201, "{\"name\":\"" + tagName + "\"}");
+            }
+            if (path.startsWith("/repository/tags/"))
+            {
+                return createdTagNames.contains(id + ":" + path.substring("/repository/tags/".length()))
+                        ? response(200, "{\"name\":\"" + path.substring("/repository/tags/".length()) + "\"}")
+                        : response(404, "{\"message\":\"404 Tag Not Found\"}");
+            }
+            if (path.startsWith("/repository/tags?"))
+            {
+                return response(200, "[]");
+            }
+            if (path.equals("/repository/branches/master"))
+            {
+                return response(200, "{\"name\":\"master\",\"commit\":{\"id\":\"HEAD-" + id + "\"}}");
+            }
+            if (path.startsWith("/repository/commits?"))
+            {
+                return response(200, "[{\"id\":\"COMMIT-" + id + "\",\"title\":\"COMMIT-" + id + "\"}]");
+            }
+            return response(404, "{\"message\":\"404 Not Found\"}");
+        }
+
+        private static String value(String json, String field)
+        {
+            Matcher matcher = Pattern.compile("\"" + field + "\":\"((?:[^\"\\\\]|\\\\.)*)\"").matcher(json);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+
+        private static GitlabResponse response(int statusCode, String body)
+        {
+            return new GitlabResponse(statusCode, emptyMap(), body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Set<String> getCreatedTags()
+        {
+            return createdTags;
+        }
+
+        int getRequestCount(String request)
+        {
+            AtomicInteger count = requestCounts.get(request);
+            return count != null ? count.get() : 0;
+        }
+
+        int getMaxConcurrentRequests()
+        {
+            return maxConcurrentRequests.get();
+        }
+    }
+}
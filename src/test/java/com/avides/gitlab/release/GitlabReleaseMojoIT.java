@@ -0,0 +1,344 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.gitlab.api.GitlabAPI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.avides.gitlab.release.FakeGitlabServer.Endpoint;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Releases against the {@link FakeGitlabServer} over real HTTP and asserts the created tag as well as the round trips of the release.
+ */
+public class GitlabReleaseMojoIT
+{
+    private static final String REPOSITORY_NAMESPACE = "NAMESPACE";
+
+    private static final String REPOSITORY_NAME = "NAME";
+
+    private static final String PROJECT_VERSION = "1.1.0";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private FakeGitlabServer gitlab;
+
+    private GitlabReleaseMojo gitlabReleaseMojo;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        gitlab = FakeGitlabServer.start(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+
+        gitlabReleaseMojo = new GitlabReleaseMojo();
+        gitlabReleaseMojo.setGitlabHost(gitlab.getHost());
+        gitlabReleaseMojo.setGitlabAccessToken("ACCESS_TOKEN");
+        gitlabReleaseMojo.setGitlabRepositoryNamespace(REPOSITORY_NAMESPACE);
+        gitlabReleaseMojo.setGitlabRepositoryName(REPOSITORY_NAME);
+        gitlabReleaseMojo.setProjectVersion(PROJECT_VERSION);
+        gitlabReleaseMojo.setGitlabRetryBackoff(10);
+        gitlabReleaseMojo.setSession(new MavenSession(null, new DefaultMavenExecutionRequest(), null, emptyList()));
+    }
+
+    @After
+    public void tearDown()
+    {
+        gitlab.close();
+    }
+
+    @Test
+    public void testRelease() throws Exception
+    {
+        gitlab.addCommits(30, "");
+        gitlab.addTag("1.0.0", 9);
+        gitlab.addSnapshotTags(3);
+
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getTaggedCommitId(PROJECT_VERSION)).isEqualTo(gitlab.getCommitId(29));
+        assertThat(gitlab.getReleaseDescription(PROJECT_VERSION)).isEqualTo(expectedReleaseNote(29, 10));
+        assertThat(gitlab.getRequestCount(Endpoint.PROJECT)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount(Endpoint.TAG)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount(Endpoint.TAGS)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount(Endpoint.BRANCH)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount(Endpoint.COMPARE)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount(Endpoint.COMMITS)).isEqualTo(0);
+        assertThat(gitlab.getRequestCount(Endpoint.CREATE_TAG)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount()).isEqualTo(6);
+    }
+
+    @Test
+    public void testReleaseWithManyTagPages() throws Exception
+    {
+        gitlab.addCommits(30, "");
+        gitlab.addTag("1.0.0", 9);
+        gitlab.addSnapshotTags(250);
+
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getReleaseDescription(PROJECT_VERSION)).isEqualTo(expectedReleaseNote(29, 10));
+        // the release tag is the 251st tag, so it is found on the third page of 100 tags
+        assertThat(gitlab.getRequestCount(Endpoint.TAGS)).isEqualTo(3);
+        assertThat(gitlab.getRequestCount()).isEqualTo(8);
+    }
+
+    @Test
+    public void testReleaseWithoutCompareApi() throws Exception
+    {
+        gitlab.addCommits(50, "");
+        gitlab.addTag("1.0.0", 9);
+
+        gitlabReleaseMojo.setGitlabCompareApiDesired(false);
+        gitlabReleaseMojo.setGitlabCommitsPerPage(10);
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getReleaseDescription(PROJECT_VERSION)).isEqualTo(expectedReleaseNote(49, 10));
+        // 41 commits since the release (including the released commit) are listed on 5 pages of 10 commits
+        assertThat(gitlab.getRequestCount(Endpoint.COMMITS)).isEqualTo(5);
+        assertThat(gitlab.getRequestCount(Endpoint.COMPARE)).isEqualTo(0);
+    }
+
+    @Test
+    public void testReleaseWithoutCompareApiAndFullLastPage() throws Exception
+    {
+        gitlab.addCommits(50, "");
+        gitlab.addTag("1.0.0", 10);
+
+        gitlabReleaseMojo.setGitlabCompareApiDesired(false);
+        gitlabReleaseMojo.setGitlabCommitsPerPage(10);
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getReleaseDescription(PROJECT_VERSION)).isEqualTo(expectedReleaseNote(49, 11));
+        // 40 commits fill exactly 4 pages, the empty X-Next-Page of the last page saves the request of an empty page
+        assertThat(gitlab.getRequestCount(Endpoint.COMMITS)).isEqualTo(4);
+    }
+
+    @Test
+    public void testReleaseWithMaxCommits() throws Exception
+    {
+        gitlab.addCommits(1000, "");
+
+        gitlabReleaseMojo.setGitlabCommitsPerPage(10);
+        gitlabReleaseMojo.setGitlabReleaseNoteMaxCommits(15);
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getReleaseDescription(PROJECT_VERSION)).isEqualTo(expectedReleaseNote(999, 985) + "... and at least 5 more commits\n");
+        assertThat(gitlab.getRequestCount(Endpoint.COMMITS)).isEqualTo(2);
+    }
+
+    @Test
+    public void testReleaseWithModulePath() throws Exception
+    {
+        gitlab.addCommits(10, "module-a");
+        gitlab.addTag("1.0.0", 9);
+        gitlab.addCommits(5, "module-b/src");
+        gitlab.addCommits(3, "module-a/src");
+        gitlab.addCommits(2, "module-b");
+
+        gitlabReleaseMojo.setGitlabModulePath("module-a");
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getTaggedCommitId(PROJECT_VERSION)).isEqualTo(gitlab.getCommitId(19));
+        assertThat(gitlab.getReleaseDescription(PROJECT_VERSION)).isEqualTo(expectedReleaseNote(17, 15));
+        assertThat(gitlab.getRequestCount(Endpoint.COMMITS)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount(Endpoint.COMPARE)).isEqualTo(0);
+    }
+
+    @Test
+    public void testReleaseWithExistingTag() throws Exception
+    {
+        gitlab.addCommits(10, "");
+        gitlab.addTag(PROJECT_VERSION, 9);
+
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getRequestCount(Endpoint.CREATE_TAG)).isEqualTo(0);
+        assertThat(gitlab.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void testReleaseWithReleasesApi() throws Exception
+    {
+        gitlab.addCommits(10, "");
+        gitlab.addTag("1.0.0", 4);
+        gitlab.setVersion("12.0.0");
+
+        gitlabReleaseMojo.setGitlabReleasesApiDesired(true);
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getReleaseDescription(PROJECT_VERSION)).isEqualTo(expectedReleaseNote(9, 5));
+        assertThat(gitlab.getRequestCount(Endpoint.VERSION)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount(Endpoint.CREATE_RELEASE)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount(Endpoint.CREATE_TAG)).isEqualTo(0);
+    }
+
+    @Test
+    public void testReleaseWithRateLimit() throws Exception
+    {
+        gitlab.addCommits(10, "");
+        gitlab.injectErrors(Endpoint.PROJECT, 429, 503);
+
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getTaggedCommitId(PROJECT_VERSION)).isEqualTo(gitlab.getCommitId(9));
+        assertThat(gitlab.getRequestCount(Endpoint.PROJECT)).isEqualTo(3);
+    }
+
+    @Test
+    public void testReleaseWithServerError() throws Exception
+    {
+        gitlab.addCommits(10, "");
+        gitlab.injectErrors(Endpoint.BRANCH, 500, 502, 500, 504);
+
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to resolve branch head");
+
+        // the first request and 3 retries
+        assertThat(gitlab.getRequestCount(Endpoint.BRANCH)).isEqualTo(4);
+        assertThat(gitlab.getRequestCount(Endpoint.CREATE_TAG)).isEqualTo(0);
+    }
+
+    @Test
+    public void testReleaseWithSlowGitlab() throws Exception
+    {
+        gitlab.addCommits(10, "");
+        gitlab.setLatency(Endpoint.BRANCH, 500);
+
+        gitlabReleaseMojo.setGitlabReadTimeout(100);
+        gitlabReleaseMojo.setGitlabMaxRetries(1);
+
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to resolve branch head");
+
+        assertThat(gitlab.getRequestCount(Endpoint.BRANCH)).isEqualTo(2);
+        assertThat(gitlab.getRequestCount(Endpoint.CREATE_TAG)).isEqualTo(0);
+    }
+
+    @Test
+    public void testReleaseWithLatency() throws Exception
+    {
+        gitlab.addCommits(10, "");
+        for (Endpoint endpoint : new Endpoint[] { Endpoint.TAG, Endpoint.TAGS, Endpoint.BRANCH })
+        {
+            gitlab.setLatency(endpoint, 300);
+        }
+
+        long start = System.nanoTime();
+        gitlabReleaseMojo.execute();
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        assertThat(gitlab.getTaggedCommitId(PROJECT_VERSION)).isEqualTo(gitlab.getCommitId(9));
+        // the independent requests are executed concurrently, so the release waits less than the sum of the latencies
+        assertThat(millis).isLessThan(900);
+    }
+
+    @Test
+    public void testReleaseWithReport() throws Exception
+    {
+        gitlab.addCommits(30, "");
+        gitlab.addTag("1.0.0", 9);
+        gitlab.injectErrors(Endpoint.TAGS, 503);
+        File reportFile = temporaryFolder.getRoot().toPath().resolve("target/gitlab-release-report.json").toFile();
+
+        gitlabReleaseMojo.setGitlabReportFile(reportFile);
+        gitlabReleaseMojo.execute();
+
+        JsonNode report = GitlabAPI.MAPPER.readTree(reportFile);
+        assertThat(report.get("repository").asText()).isEqualTo(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+        assertThat(report.get("version").asText()).isEqualTo(PROJECT_VERSION);
+        assertThat(report.get("outcome").asText()).isEqualTo("RELEASED");
+        assertThat(report.get("requests")).hasSize(6);
+        assertThat(report.get("endpoints")).extracting(endpoint -> endpoint.get("endpoint").asText() + "=" + endpoint.get("retries").asInt())
+                .containsExactlyInAnyOrder("/projects/:id=0", "/projects/:id/repository/tags/:name=0", "/projects/:id/repository/tags=1",
+                        "/projects/:id/repository/branches/:name=0", "/projects/:id/repository/compare=0", "/projects/:id/repository/tags=0");
+    }
+
+    @Test
+    public void testReleaseWithCassette() throws Exception
+    {
+        gitlab.addCommits(30, "");
+        gitlab.addTag("1.0.0", 9);
+        gitlab.injectErrors(Endpoint.TAGS, 503);
+        File cassetteFile = temporaryFolder.getRoot().toPath().resolve("gitlab-cassette.jsonl").toFile();
+
+        gitlabReleaseMojo.setGitlabCassetteMode(CassetteTransport.Mode.RECORD);
+        gitlabReleaseMojo.setGitlabCassetteFile(cassetteFile);
+        gitlabReleaseMojo.execute();
+        assertThat(gitlab.getTaggedCommitId(PROJECT_VERSION)).isEqualTo(gitlab.getCommitId(29));
+        gitlab.close();
+
+        // the cassette answers the release of a new session without any GitLab
+        gitlabReleaseMojo.setSession(new MavenSession(null, new DefaultMavenExecutionRequest(), null, emptyList()));
+        gitlabReleaseMojo.setGitlabCassetteMode(CassetteTransport.Mode.REPLAY);
+        gitlabReleaseMojo.setGitlabReportFile(temporaryFolder.getRoot().toPath().resolve("gitlab-release-report.json").toFile());
+        gitlabReleaseMojo.execute();
+
+        JsonNode report = GitlabAPI.MAPPER.readTree(gitlabReleaseMojo.getGitlabReportFile());
+        assertThat(report.get("outcome").asText()).isEqualTo("RELEASED");
+        assertThat(report.get("requests")).hasSize(6);
+        assertThat(report.get("requests").get(5).get("method").asText()).isEqualTo("POST");
+        // the failure of the recording is replayed as well
+        assertThat(report.get("endpoints")).extracting(endpoint -> endpoint.get("method").asText() + " " + endpoint.get("endpoint").asText() + "="
+                + endpoint.get("retries").asInt()).contains("GET /projects/:id/repository/tags=1");
+    }
+
+    @Test
+    public void testReleaseWithDryRun() throws Exception
+    {
+        gitlab.addCommits(30, "");
+        gitlab.addTag("1.0.0", 9);
+        File reportFile = temporaryFolder.getRoot().toPath().resolve("gitlab-release-report.json").toFile();
+
+        gitlabReleaseMojo.setGitlabReportFile(reportFile);
+        gitlabReleaseMojo.setGitlabDryRun(true);
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getTaggedCommitId(PROJECT_VERSION)).isNull();
+        assertThat(gitlab.getRequestCount(Endpoint.CREATE_TAG)).isEqualTo(0);
+        assertThat(gitlab.getRequestCount()).isEqualTo(5);
+
+        JsonNode report = GitlabAPI.MAPPER.readTree(reportFile);
+        assertThat(report.get("outcome").asText()).isEqualTo("PLANNED");
+        assertThat(report.get("requests")).hasSize(5).allSatisfy(request -> assertThat(request.get("method").asText()).isEqualTo("GET"));
+    }
+
+    @Test
+    public void testReleaseWithDryRunAndOptimisticTagging() throws Exception
+    {
+        gitlab.addCommits(10, "");
+        gitlab.addTag(PROJECT_VERSION, 9);
+        File reportFile = temporaryFolder.getRoot().toPath().resolve("gitlab-release-report.json").toFile();
+
+        gitlabReleaseMojo.setGitlabReportFile(reportFile);
+        gitlabReleaseMojo.setGitlabOptimisticTagging(true);
+        gitlabReleaseMojo.setGitlabDryRun(true);
+        gitlabReleaseMojo.execute();
+
+        assertThat(gitlab.getRequestCount(Endpoint.TAG)).isEqualTo(1);
+        assertThat(gitlab.getRequestCount(Endpoint.CREATE_TAG)).isEqualTo(0);
+        assertThat(GitlabAPI.MAPPER.readTree(reportFile).get("outcome").asText()).isEqualTo("ALREADY_RELEASED");
+    }
+
+    /**
+     * @return the release note of the commits from the newest to the oldest index
+     */
+    private String expectedReleaseNote(int newestCommitIndex, int oldestCommitIndex)
+    {
+        StringBuilder releaseNote = new StringBuilder();
+        for (int index = newestCommitIndex; index >= oldestCommitIndex; index--)
+        {
+            releaseNote.append("* Commit ").append(index).append(" (").append(gitlab.getCommitId(index)).append(")\n");
+        }
+        return releaseNote.toString();
+    }
+}
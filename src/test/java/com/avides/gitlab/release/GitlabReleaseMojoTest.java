@@ -1,34 +1,59 @@
 package com.avides.gitlab.release;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyIterator;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.easymock.EasyMock.anyObject;
+import static org.powermock.api.easymock.PowerMock.createMock;
 import static org.powermock.api.easymock.PowerMock.expectLastCall;
 import static org.powermock.api.easymock.PowerMock.mockStatic;
 import static org.powermock.api.easymock.PowerMock.replayAll;
 import static org.powermock.api.easymock.PowerMock.verifyAll;
 
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.sql.Date;
 import java.time.Instant;
-
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
 import org.easymock.TestSubject;
-import org.gitlab.api.GitlabAPI;
-import org.gitlab.api.http.GitlabHTTPRequestor;
+import org.eclipse.jgit.api.Git;
+import org.gitlab.api.GitlabAPIException;
+import org.gitlab.api.models.GitlabBranch;
 import org.gitlab.api.models.GitlabBranchCommit;
 import org.gitlab.api.models.GitlabCommit;
+import org.gitlab.api.models.GitlabCommitComparison;
 import org.gitlab.api.models.GitlabProject;
+import org.gitlab.api.models.GitlabRelease;
 import org.gitlab.api.models.GitlabTag;
+import org.gitlab.api.models.GitlabVersion;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.powermock.api.easymock.annotation.MockStrict;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest(GitlabAPI.class)
+@PrepareForTest(GitlabClient.class)
 public class GitlabReleaseMojoTest
 {
     private static final String GITLAB_HOST = "GITLAB_HOST";
@@ -41,11 +66,14 @@ public class GitlabReleaseMojoTest
 
     private static final String PROJECT_VERSION = "1.0.0-RELEASE";
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @TestSubject
     private final GitlabReleaseMojo gitlabReleaseMojo = new GitlabReleaseMojo();
 
     @MockStrict
-    private GitlabAPI gitlabAPI;
+    private GitlabClient gitlabClient;
 
     @MockStrict
     private GitlabProject gitlabProject;
@@ -62,6 +90,12 @@ public class GitlabReleaseMojoTest
     @MockStrict
     private GitlabTag gitlabTag;
 
+    @MockStrict
+    private GitlabTag preReleaseTag;
+
+    @MockStrict
+    private Iterator<GitlabTag[]> tagPages;
+
     @MockStrict
     private GitlabBranchCommit gitlabTagBranchCommit;
 
@@ -69,7 +103,19 @@ public class GitlabReleaseMojoTest
     private GitlabTag addedGitlabTag;
 
     @MockStrict
-    private GitlabHTTPRequestor gitlabHTTPRequestor;
+    private GitlabCommitComparison gitlabCommitComparison;
+
+    @MockStrict
+    private GitlabBranch gitlabBranch;
+
+    @MockStrict
+    private GitlabBranchCommit gitlabBranchHeadCommit;
+
+    @MockStrict
+    private GitlabVersion gitlabVersion;
+
+    @MockStrict
+    private GitlabRelease addedGitlabRelease;
 
     @Before
     public void setUp()
@@ -79,19 +125,17 @@ public class GitlabReleaseMojoTest
         gitlabReleaseMojo.setGitlabRepositoryNamespace(REPOSITORY_NAMESPACE);
         gitlabReleaseMojo.setGitlabRepositoryName(REPOSITORY_NAME);
         gitlabReleaseMojo.setProjectVersion(PROJECT_VERSION);
+        gitlabReleaseMojo.setGitlabParallelism(1);
     }
 
     @Test
     public void testExecute() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
-
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
@@ -100,25 +144,31 @@ public class GitlabReleaseMojoTest
         gitlabProject.getId();
         expectLastCall().andReturn(Integer.valueOf(1));
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(emptyList());
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
 
-        gitlabAPI.retrieve();
-        expectLastCall().andReturn(gitlabHTTPRequestor);
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
 
-        gitlabHTTPRequestor.to("/projects/1/repository/commits?ref_name=master", GitlabCommit[].class);
-        expectLastCall().andReturn(new GitlabCommit[] { gitlabCommit });
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
 
-        gitlabCommit.getId();
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
         gitlabCommit.getTitle();
         expectLastCall().andReturn("COMMIT_TITLE").times(2);
 
         gitlabCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
-        gitlabAPI.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
         expectLastCall().andReturn(addedGitlabTag);
 
         addedGitlabTag.getName();
@@ -134,14 +184,11 @@ public class GitlabReleaseMojoTest
     @Test
     public void testExecuteWithScmUrlInsteadOfGitlabRepositoryNamespaceConfigured() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
-
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
@@ -150,25 +197,31 @@ public class GitlabReleaseMojoTest
         gitlabProject.getId();
         expectLastCall().andReturn(Integer.valueOf(1));
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(emptyList());
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
 
-        gitlabAPI.retrieve();
-        expectLastCall().andReturn(gitlabHTTPRequestor);
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
 
-        gitlabHTTPRequestor.to("/projects/1/repository/commits?ref_name=master", GitlabCommit[].class);
-        expectLastCall().andReturn(new GitlabCommit[] { gitlabCommit });
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
 
-        gitlabCommit.getId();
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
         gitlabCommit.getTitle();
         expectLastCall().andReturn("COMMIT_TITLE").times(2);
 
         gitlabCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
-        gitlabAPI.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
         expectLastCall().andReturn(addedGitlabTag);
 
         addedGitlabTag.getName();
@@ -186,14 +239,11 @@ public class GitlabReleaseMojoTest
     @Test
     public void testExecuteWithOtherBranchName() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
-
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
@@ -202,25 +252,31 @@ public class GitlabReleaseMojoTest
         gitlabProject.getId();
         expectLastCall().andReturn(Integer.valueOf(1));
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(emptyList());
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
 
-        gitlabAPI.retrieve();
-        expectLastCall().andReturn(gitlabHTTPRequestor);
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
 
-        gitlabHTTPRequestor.to("/projects/1/repository/commits?ref_name=OTHER_BRANCH_NAME", GitlabCommit[].class);
-        expectLastCall().andReturn(new GitlabCommit[] { gitlabCommit });
+        gitlabClient.getBranch(Integer.valueOf(1), "OTHER_BRANCH_NAME");
+        expectLastCall().andReturn(gitlabBranch);
 
-        gitlabCommit.getId();
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
         gitlabCommit.getTitle();
         expectLastCall().andReturn("COMMIT_TITLE").times(2);
 
         gitlabCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
-        gitlabAPI.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
         expectLastCall().andReturn(addedGitlabTag);
 
         addedGitlabTag.getName();
@@ -237,14 +293,11 @@ public class GitlabReleaseMojoTest
     @Test
     public void testExecuteWithMultipleCommits() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
-
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
@@ -253,18 +306,24 @@ public class GitlabReleaseMojoTest
         gitlabProject.getId();
         expectLastCall().andReturn(Integer.valueOf(1));
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(emptyList());
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
 
-        gitlabAPI.retrieve();
-        expectLastCall().andReturn(gitlabHTTPRequestor);
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
 
-        gitlabHTTPRequestor.to("/projects/1/repository/commits?ref_name=master", GitlabCommit[].class);
-        expectLastCall().andReturn(new GitlabCommit[] { gitlabCommit, mergeBranchCommit, anotherCommit });
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
 
-        gitlabCommit.getId();
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit, mergeBranchCommit, anotherCommit }).iterator());
+
         gitlabCommit.getTitle();
         expectLastCall().andReturn("COMMIT_TITLE").times(2);
 
@@ -280,7 +339,7 @@ public class GitlabReleaseMojoTest
         anotherCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
-        gitlabAPI.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n* ANOTHER_COMMIT_TITLE (COMMIT_REF)\n");
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n* ANOTHER_COMMIT_TITLE (COMMIT_REF)\n");
         expectLastCall().andReturn(addedGitlabTag);
 
         addedGitlabTag.getName();
@@ -294,16 +353,13 @@ public class GitlabReleaseMojoTest
     }
 
     @Test
-    public void testExecuteWithPreviousReleases() throws Exception
+    public void testExecuteWithSharedSession() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
-
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
@@ -312,34 +368,101 @@ public class GitlabReleaseMojoTest
         gitlabProject.getId();
         expectLastCall().andReturn(Integer.valueOf(1));
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(singletonList(gitlabTag));
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
 
-        gitlabTag.getName();
-        expectLastCall().andReturn("0.1.0-RELEASE").times(2);
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
 
-        gitlabTag.getCommit();
-        expectLastCall().andReturn(gitlabTagBranchCommit);
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
 
-        gitlabTagBranchCommit.getCommittedDate();
-        expectLastCall().andReturn(Date.from(Instant.parse("2018-10-23T21:18:30.00Z")));
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
 
-        gitlabAPI.retrieve();
-        expectLastCall().andReturn(gitlabHTTPRequestor);
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
 
-        gitlabHTTPRequestor.to("/projects/1/repository/commits?ref_name=master&since=2018-10-23T21%3A18%3A30", GitlabCommit[].class);
-        expectLastCall().andReturn(new GitlabCommit[] { gitlabCommit, anotherCommit });
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
 
         gitlabCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        replayAll();
+
+        MavenSession session = new MavenSession(null, null, new DefaultMavenExecutionRequest(), null);
+        gitlabReleaseMojo.setSession(session);
+        gitlabReleaseMojo.execute();
+
+        GitlabReleaseMojo otherModuleGitlabReleaseMojo = new GitlabReleaseMojo();
+        otherModuleGitlabReleaseMojo.setGitlabHost(GITLAB_HOST);
+        otherModuleGitlabReleaseMojo.setGitlabAccessToken(GITLAB_ACCESS_TOKEN);
+        otherModuleGitlabReleaseMojo.setGitlabRepositoryNamespace(REPOSITORY_NAMESPACE);
+        otherModuleGitlabReleaseMojo.setGitlabRepositoryName(REPOSITORY_NAME);
+        otherModuleGitlabReleaseMojo.setProjectVersion(PROJECT_VERSION);
+        otherModuleGitlabReleaseMojo.setSession(session.clone());
+        otherModuleGitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithReleaseAtEnd() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
         gitlabCommit.getTitle();
         expectLastCall().andReturn("COMMIT_TITLE").times(2);
 
         gitlabCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
-        gitlabAPI.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
         expectLastCall().andReturn(addedGitlabTag);
 
         addedGitlabTag.getName();
@@ -347,22 +470,38 @@ public class GitlabReleaseMojoTest
 
         replayAll();
 
+        MavenProject firstModule = createProject("first-module");
+        MavenProject lastModule = createProject("last-module");
+        MavenSession session = new MavenSession(null, new DefaultMavenExecutionRequest(), null, asList(firstModule, lastModule));
+
+        session.setCurrentProject(firstModule);
+        gitlabReleaseMojo.setSession(session);
+        gitlabReleaseMojo.setGitlabReleaseAtEnd(true);
         gitlabReleaseMojo.execute();
 
+        GitlabReleaseMojo lastModuleGitlabReleaseMojo = new GitlabReleaseMojo();
+        lastModuleGitlabReleaseMojo.setGitlabHost(GITLAB_HOST);
+        lastModuleGitlabReleaseMojo.setGitlabAccessToken(GITLAB_ACCESS_TOKEN);
+        lastModuleGitlabReleaseMojo.setGitlabRepositoryNamespace(REPOSITORY_NAMESPACE);
+        lastModuleGitlabReleaseMojo.setGitlabRepositoryName(REPOSITORY_NAME);
+        lastModuleGitlabReleaseMojo.setProjectVersion(PROJECT_VERSION);
+        lastModuleGitlabReleaseMojo.setGitlabReleaseAtEnd(true);
+        MavenSession lastModuleSession = session.clone();
+        lastModuleSession.setCurrentProject(lastModule);
+        lastModuleGitlabReleaseMojo.setSession(lastModuleSession);
+        lastModuleGitlabReleaseMojo.execute();
+
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithPreviousTagsAndNoPreviousReleases() throws Exception
+    public void testExecuteWithReleaseAtEndAndLastModuleWithoutExecution() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
-
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
@@ -371,28 +510,31 @@ public class GitlabReleaseMojoTest
         gitlabProject.getId();
         expectLastCall().andReturn(Integer.valueOf(1));
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(singletonList(gitlabTag));
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
 
-        gitlabTag.getName();
-        expectLastCall().andReturn("0.1.0-SNAPSHOT").times(2);
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
 
-        gitlabAPI.retrieve();
-        expectLastCall().andReturn(gitlabHTTPRequestor);
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
 
-        gitlabHTTPRequestor.to("/projects/1/repository/commits?ref_name=master", GitlabCommit[].class);
-        expectLastCall().andReturn(new GitlabCommit[] { gitlabCommit });
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
 
-        gitlabCommit.getId();
+        gitlabBranchHeadCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
         gitlabCommit.getTitle();
         expectLastCall().andReturn("COMMIT_TITLE").times(2);
 
         gitlabCommit.getId();
         expectLastCall().andReturn("COMMIT_REF");
 
-        gitlabAPI.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
         expectLastCall().andReturn(addedGitlabTag);
 
         addedGitlabTag.getName();
@@ -400,189 +542,353 @@ public class GitlabReleaseMojoTest
 
         replayAll();
 
+        Plugin plugin = new Plugin();
+        plugin.setGroupId("com.avides.gitlab");
+        plugin.setArtifactId("gitlab-release-maven-plugin");
+        PluginExecution execution = new PluginExecution();
+        execution.setId("release");
+        execution.addGoal("release");
+        plugin.addExecution(execution);
+
+        MavenProject firstModule = createProject("first-module");
+        firstModule.getBuild().addPlugin(plugin);
+        // e.g. an aggregator or a module which does not bind the goal
+        MavenProject lastModule = createProject("last-module");
+        MavenSession session = new MavenSession(null, new DefaultMavenExecutionRequest(), null, asList(firstModule, lastModule));
+
+        session.setCurrentProject(firstModule);
+        gitlabReleaseMojo.setSession(session);
+        gitlabReleaseMojo.setMojoExecution(new MojoExecution(plugin, "release", "release"));
+        gitlabReleaseMojo.setGitlabReleaseAtEnd(true);
         gitlabReleaseMojo.execute();
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithoutProjectVersionIsSnapshot() throws Exception
+    public void testExecuteWithReleaseAtEndAndNotLastModule() throws Exception
     {
         replayAll();
 
-        gitlabReleaseMojo.setProjectVersion("1.0.0-SNAPSHOT");
+        MavenProject firstModule = createProject("first-module");
+        MavenSession session = new MavenSession(null, new DefaultMavenExecutionRequest(), null, asList(firstModule, createProject("last-module")));
+        session.setCurrentProject(firstModule);
+
+        gitlabReleaseMojo.setSession(session);
+        gitlabReleaseMojo.setGitlabReleaseAtEnd(true);
         gitlabReleaseMojo.execute();
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithoutProjectVersionIsAlpha() throws Exception
+    public void testExecuteWithOpenCircuitBreaker() throws Exception
     {
         replayAll();
 
-        gitlabReleaseMojo.setProjectVersion("1.0.0-alpha");
-        gitlabReleaseMojo.execute();
+        MavenSession session = new MavenSession(null, null, new DefaultMavenExecutionRequest(), null);
+        openCircuitBreaker(session);
+
+        gitlabReleaseMojo.setSession(session);
+
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class)
+                .hasMessage("Gitlab " + GITLAB_HOST + " is unavailable after 5 consecutive failures");
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithoutProjectVersionIsBeta() throws Exception
+    public void testExecuteWithOpenCircuitBreakerAndSkipWhenUnavailable() throws Exception
     {
         replayAll();
 
-        gitlabReleaseMojo.setProjectVersion("1.0.0-beta");
+        MavenSession session = new MavenSession(null, null, new DefaultMavenExecutionRequest(), null);
+        openCircuitBreaker(session);
+
+        gitlabReleaseMojo.setSession(session);
+        gitlabReleaseMojo.setGitlabSkipWhenUnavailable(true);
         gitlabReleaseMojo.execute();
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithoutProjectVersionIsReleaseCandidate1() throws Exception
+    public void testExecuteWithLocalHistory() throws Exception
     {
+        File repositoryDirectory = temporaryFolder.getRoot();
+        String headCommitId;
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call())
+        {
+            git.commit().setMessage("RELEASE_COMMIT_TITLE").setAllowEmpty(true).call();
+            git.tag().setName("0.1.0-RELEASE").call();
+            git.commit().setMessage("Merge branch 'feature' into 'master'").setAllowEmpty(true).call();
+            headCommitId = git.commit().setMessage("COMMIT_TITLE").setAllowEmpty(true).call().getName();
+        }
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, headCommitId, "", "* COMMIT_TITLE (" + headCommitId + ")\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
         replayAll();
 
-        gitlabReleaseMojo.setProjectVersion("1.0.0-RC1");
+        gitlabReleaseMojo.setGitlabLocalHistory(true);
+        gitlabReleaseMojo.setProjectBaseDirectory(repositoryDirectory);
         gitlabReleaseMojo.execute();
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithoutProjectVersionIsMilestone1() throws Exception
+    public void testExecuteWithLocalHistoryAndTagAlreadyExists() throws Exception
     {
+        File repositoryDirectory = temporaryFolder.getRoot();
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call())
+        {
+            git.commit().setMessage("COMMIT_TITLE").setAllowEmpty(true).call();
+            git.tag().setName(PROJECT_VERSION).call();
+        }
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
         replayAll();
 
-        gitlabReleaseMojo.setProjectVersion("1.0.0-M1");
+        gitlabReleaseMojo.setGitlabLocalHistory(true);
+        gitlabReleaseMojo.setProjectBaseDirectory(repositoryDirectory);
         gitlabReleaseMojo.execute();
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithoutProjectVersionIsBuildSnapshot() throws Exception
+    public void testExecuteWithLocalHistoryAndWithoutRepository() throws Exception
     {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
         replayAll();
 
-        gitlabReleaseMojo.setProjectVersion("1.0.0-BUILD_SNAPSHOT");
-        gitlabReleaseMojo.execute();
+        gitlabReleaseMojo.setGitlabLocalHistory(true);
+        gitlabReleaseMojo.setProjectBaseDirectory(new File(temporaryFolder.getRoot().getParentFile(), "missing"));
+
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to read local history");
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithProjectVersionIsNotReleaseAndGitlabPreReleaseDesiredIsTrue() throws Exception
+    public void testExecuteWithReleasesApi() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
+        String headCommitId = initRepositoryWithOneCommit();
+        List<GitlabReleaseLink> links = singletonList(new GitlabReleaseLink("artifact.jar", "https://nexus/artifact.jar"));
 
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
         expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
 
-        gitlabProject.getId();
-        expectLastCall().andReturn(Integer.valueOf(1));
+        gitlabClient.getVersion();
+        expectLastCall().andReturn(gitlabVersion);
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(emptyList());
+        gitlabVersion.getVersion();
+        expectLastCall().andReturn("11.7.0-ee");
 
-        gitlabAPI.retrieve();
-        expectLastCall().andReturn(gitlabHTTPRequestor);
+        gitlabClient.createRelease(gitlabProject, PROJECT_VERSION, headCommitId, "* COMMIT_TITLE (" + headCommitId + ")\n", links);
+        expectLastCall().andReturn(addedGitlabRelease);
 
-        gitlabHTTPRequestor.to("/projects/1/repository/commits?ref_name=master", GitlabCommit[].class);
-        expectLastCall().andReturn(new GitlabCommit[] { gitlabCommit });
+        addedGitlabRelease.getTagName();
+        expectLastCall().andReturn(PROJECT_VERSION);
 
-        gitlabCommit.getId();
-        expectLastCall().andReturn("COMMIT_REF");
+        replayAll();
 
-        gitlabCommit.getTitle();
-        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+        gitlabReleaseMojo.setGitlabLocalHistory(true);
+        gitlabReleaseMojo.setProjectBaseDirectory(temporaryFolder.getRoot());
+        gitlabReleaseMojo.setGitlabReleasesApiDesired(true);
+        gitlabReleaseMojo.setGitlabReleaseLinks(links);
+        gitlabReleaseMojo.execute();
 
-        gitlabCommit.getId();
-        expectLastCall().andReturn("COMMIT_REF");
+        verifyAll();
+    }
 
-        gitlabAPI.addTag(gitlabProject, "1.0.0-SNAPSHOT", "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+    @Test
+    public void testExecuteWithReleasesApiAndOldGitlab() throws Exception
+    {
+        String headCommitId = initRepositoryWithOneCommit();
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabClient.getVersion();
+        expectLastCall().andReturn(gitlabVersion);
+
+        gitlabVersion.getVersion();
+        expectLastCall().andReturn("11.6.5");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, headCommitId, "",
+                "* COMMIT_TITLE (" + headCommitId + ")\n\n* [artifact.jar](https://nexus/artifact.jar)\n");
         expectLastCall().andReturn(addedGitlabTag);
 
         addedGitlabTag.getName();
-        expectLastCall().andReturn("1.0.0-SNAPSHOT");
+        expectLastCall().andReturn(PROJECT_VERSION);
 
         replayAll();
 
-        gitlabReleaseMojo.setProjectVersion("1.0.0-SNAPSHOT");
-        gitlabReleaseMojo.setGitlabPreReleaseDesired(true);
+        gitlabReleaseMojo.setGitlabLocalHistory(true);
+        gitlabReleaseMojo.setProjectBaseDirectory(temporaryFolder.getRoot());
+        gitlabReleaseMojo.setGitlabReleasesApiDesired(true);
+        gitlabReleaseMojo.setGitlabReleaseLinks(singletonList(new GitlabReleaseLink("artifact.jar", "https://nexus/artifact.jar")));
         gitlabReleaseMojo.execute();
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithTagAlreadyExists() throws Exception
+    public void testExecuteWithReleasesApiAndFailedVersionLookup() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
+        String headCommitId = initRepositoryWithOneCommit();
 
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
         expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(singletonList(gitlabTag));
+        gitlabClient.getVersion();
+        expectLastCall().andThrow(new GitlabAPIException("403 Forbidden", Integer.valueOf(403), null));
 
-        gitlabTag.getName();
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, headCommitId, "", "* COMMIT_TITLE (" + headCommitId + ")\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
         expectLastCall().andReturn(PROJECT_VERSION);
 
         replayAll();
 
+        gitlabReleaseMojo.setGitlabLocalHistory(true);
+        gitlabReleaseMojo.setProjectBaseDirectory(temporaryFolder.getRoot());
+        gitlabReleaseMojo.setGitlabReleasesApiDesired(true);
         gitlabReleaseMojo.execute();
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithExceptionOnResolveProject() throws Exception
+    public void testIsReleasesApiSupported()
+    {
+        assertThat(GitlabReleaseMojo.isReleasesApiSupported("11.7.0")).isTrue();
+        assertThat(GitlabReleaseMojo.isReleasesApiSupported("11.10.1-ee")).isTrue();
+        assertThat(GitlabReleaseMojo.isReleasesApiSupported("12.0.0-pre")).isTrue();
+        assertThat(GitlabReleaseMojo.isReleasesApiSupported("11.6.5")).isFalse();
+        assertThat(GitlabReleaseMojo.isReleasesApiSupported("10.8.7")).isFalse();
+        assertThat(GitlabReleaseMojo.isReleasesApiSupported("unknown")).isFalse();
+        assertThat(GitlabReleaseMojo.isReleasesApiSupported(null)).isFalse();
+    }
+
+    @Test
+    public void testExecuteWithAsync() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
+        String headCommitId = initRepositoryWithOneCommit();
+        File spoolDirectory = temporaryFolder.newFolder("spool");
 
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
+        replayAll();
 
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
-        expectLastCall().andThrow(new IOException());
+        gitlabReleaseMojo.setProjectBaseDirectory(temporaryFolder.getRoot());
+        gitlabReleaseMojo.setGitlabSpoolDirectory(spoolDirectory);
+        gitlabReleaseMojo.setGitlabAsync(true);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+        assertSpooledRelease(spoolDirectory, headCommitId);
+    }
+
+    @Test
+    public void testExecuteWithAsyncAndOtherBranchCheckedOut() throws Exception
+    {
+        String headCommitId = initRepositoryWithOneCommit();
+        try (Git git = Git.open(temporaryFolder.getRoot()))
+        {
+            git.checkout().setCreateBranch(true).setName("feature").call();
+            git.commit().setMessage("FEATURE_COMMIT_TITLE").setAllowEmpty(true).call();
+        }
+        File spoolDirectory = temporaryFolder.newFolder("spool");
 
         replayAll();
 
-        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to resolve project");
+        gitlabReleaseMojo.setProjectBaseDirectory(temporaryFolder.getRoot());
+        gitlabReleaseMojo.setGitlabSpoolDirectory(spoolDirectory);
+        gitlabReleaseMojo.setGitlabAsync(true);
+        gitlabReleaseMojo.execute();
 
         verifyAll();
+        // the head of the released branch is tagged like by GitLab, not the checked out commit
+        assertSpooledRelease(spoolDirectory, headCommitId);
     }
 
     @Test
-    public void testExecuteWithExceptionOnResolveLatestCommitOnBranch() throws Exception
+    public void testExecuteWithAsyncAndWithoutSpoolDirectory() throws Exception
+    {
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabAsync(true);
+
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class)
+                .hasMessage("Failed to spool release: no spool directory defined");
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithDryRun() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
+        File spoolDirectory = temporaryFolder.newFolder("spool");
 
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
@@ -591,33 +897,53 @@ public class GitlabReleaseMojoTest
         gitlabProject.getId();
         expectLastCall().andReturn(Integer.valueOf(1));
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(emptyList());
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
 
-        gitlabAPI.retrieve();
-        expectLastCall().andReturn(gitlabHTTPRequestor);
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
 
-        gitlabHTTPRequestor.to("/projects/1/repository/commits?ref_name=master", GitlabCommit[].class);
-        expectLastCall().andThrow(new IOException());
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        // the planned request is logged instead of adding the tag
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
 
         replayAll();
 
-        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to resolve latest commit");
+        gitlabReleaseMojo.setGitlabSpoolDirectory(spoolDirectory);
+        gitlabReleaseMojo.setGitlabAsync(true);
+        gitlabReleaseMojo.setGitlabDryRun(true);
+        gitlabReleaseMojo.execute();
 
         verifyAll();
+        assertThat(spoolDirectory.list()).isEmpty();
     }
 
     @Test
-    public void testExecuteWithExceptionOnAddTag() throws Exception
+    public void testExecuteWithDryRunAndOptimisticTagging() throws Exception
     {
-        mockStatic(GitlabAPI.class);
-        GitlabAPI.connect(GITLAB_HOST, GITLAB_ACCESS_TOKEN);
-        expectLastCall().andReturn(gitlabAPI);
-
-        gitlabAPI.getHost();
-        expectLastCall().andReturn(GITLAB_HOST);
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
         expectLastCall().andReturn(gitlabProject);
 
         gitlabProject.getNameWithNamespace();
@@ -626,43 +952,1349 @@ public class GitlabReleaseMojoTest
         gitlabProject.getId();
         expectLastCall().andReturn(Integer.valueOf(1));
 
-        gitlabAPI.getTags(gitlabProject);
-        expectLastCall().andReturn(emptyList());
+        // the tag is looked up, because the dry run does not add it
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andReturn(gitlabTag);
 
-        gitlabAPI.retrieve();
-        expectLastCall().andReturn(gitlabHTTPRequestor);
+        replayAll();
 
-        gitlabHTTPRequestor.to("/projects/1/repository/commits?ref_name=master", GitlabCommit[].class);
-        expectLastCall().andReturn(new GitlabCommit[] { gitlabCommit });
+        gitlabReleaseMojo.setGitlabOptimisticTagging(true);
+        gitlabReleaseMojo.setGitlabDryRun(true);
+        gitlabReleaseMojo.execute();
 
-        gitlabCommit.getId();
-        expectLastCall().andReturn("COMMIT_REF");
+        verifyAll();
+    }
 
-        gitlabCommit.getTitle();
-        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+    @Test
+    public void testExecuteWithDryRunAndLocalHistory() throws Exception
+    {
+        File repositoryDirectory = temporaryFolder.getRoot();
+        try (Git git = Git.init().setDirectory(repositoryDirectory).call())
+        {
+            git.commit().setMessage("COMMIT_TITLE").setAllowEmpty(true).call();
+        }
 
-        gitlabCommit.getId();
-        expectLastCall().andReturn("COMMIT_REF");
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
 
-        gitlabAPI.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
-        expectLastCall().andThrow(new IOException());
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        // the tag is not fetched into the local history, so it is looked up at GitLab
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andReturn(gitlabTag);
 
         replayAll();
 
-        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to add tag");
+        gitlabReleaseMojo.setGitlabLocalHistory(true);
+        gitlabReleaseMojo.setGitlabDryRun(true);
+        gitlabReleaseMojo.setProjectBaseDirectory(repositoryDirectory);
+        gitlabReleaseMojo.execute();
 
         verifyAll();
     }
 
     @Test
-    public void testExecuteWithoutScmUrlAndGitlabRepositoryNamespace() throws Exception
+    public void testExecuteWithUnreachableGitlabAndSpoolDirectory() throws Exception
     {
+        String headCommitId = initRepositoryWithOneCommit();
+        File spoolDirectory = temporaryFolder.newFolder("spool");
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andThrow(new ConnectException("Connection refused"));
+
         replayAll();
 
-        gitlabReleaseMojo.setGitlabRepositoryNamespace(null);
-        gitlabReleaseMojo.setProjectScmUrl(null);
+        gitlabReleaseMojo.setProjectBaseDirectory(temporaryFolder.getRoot());
+        gitlabReleaseMojo.setGitlabSpoolDirectory(spoolDirectory);
         gitlabReleaseMojo.execute();
 
         verifyAll();
+        assertSpooledRelease(spoolDirectory, headCommitId);
+    }
+
+    @Test
+    public void testExecuteWithRejectedRequestAndSpoolDirectory() throws Exception
+    {
+        File spoolDirectory = temporaryFolder.newFolder("spool");
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andThrow(new GitlabAPIException("401 Unauthorized", Integer.valueOf(401), null));
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabSpoolDirectory(spoolDirectory);
+
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to resolve project");
+
+        verifyAll();
+        assertThat(new ReleaseSpool(spoolDirectory.toPath()).list()).isEmpty();
+    }
+
+    @Test
+    public void testExecuteWithOpenCircuitBreakerAndSpoolDirectory() throws Exception
+    {
+        String headCommitId = initRepositoryWithOneCommit();
+        File spoolDirectory = temporaryFolder.newFolder("spool");
+
+        replayAll();
+
+        MavenSession session = new MavenSession(null, null, new DefaultMavenExecutionRequest(), null);
+        openCircuitBreaker(session);
+
+        gitlabReleaseMojo.setSession(session);
+        gitlabReleaseMojo.setProjectBaseDirectory(temporaryFolder.getRoot());
+        gitlabReleaseMojo.setGitlabSpoolDirectory(spoolDirectory);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+        assertSpooledRelease(spoolDirectory, headCommitId);
+    }
+
+    @Test
+    public void testExecuteWithMultipleCommitPages() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=1", GitlabCommit[].class);
+        expectLastCall().andReturn(asList(new GitlabCommit[] { gitlabCommit }, new GitlabCommit[] { anotherCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        anotherCommit.getTitle();
+        expectLastCall().andReturn("ANOTHER_COMMIT_TITLE").times(2);
+
+        anotherCommit.getId();
+        expectLastCall().andReturn("ANOTHER_COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n* ANOTHER_COMMIT_TITLE (ANOTHER_COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabCommitsPerPage(1);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithMaxCommitsStopsPagination() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=1", GitlabCommit[].class);
+        expectLastCall().andReturn(asList(new GitlabCommit[] { gitlabCommit }, new GitlabCommit[] { anotherCommit }, new GitlabCommit[] { mergeBranchCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        anotherCommit.getTitle();
+        expectLastCall().andReturn("ANOTHER_COMMIT_TITLE");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n... and at least 1 more commit\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabCommitsPerPage(1);
+        gitlabReleaseMojo.setGitlabReleaseNoteMaxCommits(1);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithParallelPreflight() throws Exception
+    {
+        GitlabClient parallelGitlabClient = createMock(GitlabClient.class);
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(parallelGitlabClient);
+
+        parallelGitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        parallelGitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        parallelGitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        parallelGitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        parallelGitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        parallelGitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabParallelism(3);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithOptimisticTagging() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabOptimisticTagging(true);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithOptimisticTaggingAndTagAlreadyExists() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andThrow(new GitlabAPIException("{\"message\":\"Tag " + PROJECT_VERSION + " already exists\"}", Integer.valueOf(400), null));
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabOptimisticTagging(true);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithOptimisticTaggingAndFailedAddTag() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andThrow(new GitlabAPIException("{\"message\":\"Target COMMIT_REF is invalid\"}", Integer.valueOf(400), null));
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabOptimisticTagging(true);
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to add tag");
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithPreviousReleases() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(singletonList(new GitlabTag[] { gitlabTag }).iterator());
+
+        gitlabTag.getName();
+        expectLastCall().andReturn("0.1.0-RELEASE");
+
+        gitlabTag.getCommit();
+        expectLastCall().andReturn(gitlabTagBranchCommit);
+
+        gitlabTagBranchCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.compareCommits(Integer.valueOf(1), "RELEASE_COMMIT_REF", "COMMIT_REF");
+        expectLastCall().andReturn(gitlabCommitComparison);
+
+        gitlabCommitComparison.getCommits();
+        expectLastCall().andReturn(asList(anotherCommit, gitlabCommit));
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        anotherCommit.getTitle();
+        expectLastCall().andReturn("ANOTHER_COMMIT_TITLE").times(2);
+
+        anotherCommit.getId();
+        expectLastCall().andReturn("ANOTHER_COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n* ANOTHER_COMMIT_TITLE (ANOTHER_COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithPreviousReleasesAndCompareApiNotDesired() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(singletonList(new GitlabTag[] { gitlabTag }).iterator());
+
+        gitlabTag.getName();
+        expectLastCall().andReturn("0.1.0-RELEASE");
+
+        gitlabTag.getCommit();
+        expectLastCall().andReturn(gitlabTagBranchCommit).times(2);
+
+        gitlabTagBranchCommit.getCommittedDate();
+        expectLastCall().andReturn(Date.from(Instant.parse("2018-10-23T21:18:30.00Z")));
+
+        gitlabTagBranchCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&since=2018-10-23T21%3A18%3A30&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit, anotherCommit }).iterator());
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        anotherCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabCompareApiDesired(false);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithPreviousReleasesAndModulePath() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(singletonList(new GitlabTag[] { gitlabTag }).iterator());
+
+        gitlabTag.getName();
+        expectLastCall().andReturn("0.1.0-RELEASE");
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabTag.getCommit();
+        expectLastCall().andReturn(gitlabTagBranchCommit);
+
+        gitlabTagBranchCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=RELEASE_COMMIT_REF..COMMIT_REF&path=parent%2Fmodule&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabModulePath("/parent/module/");
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithLocalHistoryOfModule() throws Exception
+    {
+        File moduleDirectory = new File(temporaryFolder.getRoot(), "module");
+        String moduleCommitId;
+        String headCommitId;
+        try (Git git = Git.init().setDirectory(temporaryFolder.getRoot()).call())
+        {
+            git.commit().setMessage("RELEASE_COMMIT_TITLE").setAllowEmpty(true).call();
+            git.tag().setName("0.1.0-RELEASE").call();
+            moduleDirectory.mkdirs();
+            Files.write(new File(moduleDirectory, "pom.xml").toPath(), "<project/>".getBytes(StandardCharsets.UTF_8));
+            git.add().addFilepattern("module/pom.xml").call();
+            moduleCommitId = git.commit().setMessage("MODULE_COMMIT_TITLE").call().getName();
+            headCommitId = git.commit().setMessage("COMMIT_TITLE").setAllowEmpty(true).call().getName();
+        }
+
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, headCommitId, "", "* MODULE_COMMIT_TITLE (" + moduleCommitId + ")\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabLocalHistory(true);
+        gitlabReleaseMojo.setProjectBaseDirectory(moduleDirectory);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithPreviousReleasesAndFailedCompare() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(singletonList(new GitlabTag[] { gitlabTag }).iterator());
+
+        gitlabTag.getName();
+        expectLastCall().andReturn("0.1.0-RELEASE");
+
+        gitlabTag.getCommit();
+        expectLastCall().andReturn(gitlabTagBranchCommit);
+
+        gitlabTagBranchCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.compareCommits(Integer.valueOf(1), "RELEASE_COMMIT_REF", "COMMIT_REF");
+        expectLastCall().andThrow(new IOException());
+
+        gitlabTag.getName();
+        expectLastCall().andReturn("0.1.0-RELEASE");
+
+        gitlabTag.getCommit();
+        expectLastCall().andReturn(gitlabTagBranchCommit).times(2);
+
+        gitlabTagBranchCommit.getCommittedDate();
+        expectLastCall().andReturn(Date.from(Instant.parse("2018-10-23T21:18:30.00Z")));
+
+        gitlabTagBranchCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&since=2018-10-23T21%3A18%3A30&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit, anotherCommit }).iterator());
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        anotherCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithPreviousReleasesAndEmptyComparison() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(singletonList(new GitlabTag[] { gitlabTag }).iterator());
+
+        gitlabTag.getName();
+        expectLastCall().andReturn("0.1.0-RELEASE");
+
+        gitlabTag.getCommit();
+        expectLastCall().andReturn(gitlabTagBranchCommit);
+
+        gitlabTagBranchCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.compareCommits(Integer.valueOf(1), "RELEASE_COMMIT_REF", "COMMIT_REF");
+        expectLastCall().andReturn(gitlabCommitComparison);
+
+        // e.g. a timed out comparison
+        gitlabCommitComparison.getCommits();
+        expectLastCall().andReturn(emptyList());
+
+        gitlabTag.getName();
+        expectLastCall().andReturn("0.1.0-RELEASE");
+
+        gitlabTag.getCommit();
+        expectLastCall().andReturn(gitlabTagBranchCommit).times(2);
+
+        gitlabTagBranchCommit.getCommittedDate();
+        expectLastCall().andReturn(Date.from(Instant.parse("2018-10-23T21:18:30.00Z")));
+
+        gitlabTagBranchCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&since=2018-10-23T21%3A18%3A30&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit, anotherCommit }).iterator());
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        anotherCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithPreviousReleaseOnSecondTagPage() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(tagPages);
+
+        tagPages.hasNext();
+        expectLastCall().andReturn(Boolean.TRUE);
+
+        tagPages.next();
+        expectLastCall().andReturn(new GitlabTag[] { preReleaseTag });
+
+        preReleaseTag.getName();
+        expectLastCall().andReturn("0.2.0-SNAPSHOT");
+
+        tagPages.hasNext();
+        expectLastCall().andReturn(Boolean.TRUE);
+
+        tagPages.next();
+        expectLastCall().andReturn(new GitlabTag[] { gitlabTag });
+
+        gitlabTag.getName();
+        expectLastCall().andReturn("0.1.0-RELEASE");
+
+        gitlabTag.getCommit();
+        expectLastCall().andReturn(gitlabTagBranchCommit);
+
+        gitlabTagBranchCommit.getId();
+        expectLastCall().andReturn("RELEASE_COMMIT_REF");
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.compareCommits(Integer.valueOf(1), "RELEASE_COMMIT_REF", "COMMIT_REF");
+        expectLastCall().andReturn(gitlabCommitComparison);
+
+        gitlabCommitComparison.getCommits();
+        expectLastCall().andReturn(asList(anotherCommit, gitlabCommit));
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        anotherCommit.getTitle();
+        expectLastCall().andReturn("ANOTHER_COMMIT_TITLE").times(2);
+
+        anotherCommit.getId();
+        expectLastCall().andReturn("ANOTHER_COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n* ANOTHER_COMMIT_TITLE (ANOTHER_COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithPreviousTagsAndNoPreviousReleases() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(singletonList(new GitlabTag[] { gitlabTag }).iterator());
+
+        gitlabTag.getName();
+        expectLastCall().andReturn("0.1.0-SNAPSHOT");
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithoutProjectVersionIsSnapshot() throws Exception
+    {
+        replayAll();
+
+        gitlabReleaseMojo.setProjectVersion("1.0.0-SNAPSHOT");
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithoutProjectVersionIsAlpha() throws Exception
+    {
+        replayAll();
+
+        gitlabReleaseMojo.setProjectVersion("1.0.0-alpha");
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithoutProjectVersionIsBeta() throws Exception
+    {
+        replayAll();
+
+        gitlabReleaseMojo.setProjectVersion("1.0.0-beta");
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithoutProjectVersionIsReleaseCandidate1() throws Exception
+    {
+        replayAll();
+
+        gitlabReleaseMojo.setProjectVersion("1.0.0-RC1");
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithoutProjectVersionIsMilestone1() throws Exception
+    {
+        replayAll();
+
+        gitlabReleaseMojo.setProjectVersion("1.0.0-M1");
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithoutProjectVersionIsBuildSnapshot() throws Exception
+    {
+        replayAll();
+
+        gitlabReleaseMojo.setProjectVersion("1.0.0-BUILD_SNAPSHOT");
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithProjectVersionIsNotReleaseAndGitlabPreReleaseDesiredIsTrue() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/1.0.0-SNAPSHOT", GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, "1.0.0-SNAPSHOT", "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andReturn(addedGitlabTag);
+
+        addedGitlabTag.getName();
+        expectLastCall().andReturn("1.0.0-SNAPSHOT");
+
+        replayAll();
+
+        gitlabReleaseMojo.setProjectVersion("1.0.0-SNAPSHOT");
+        gitlabReleaseMojo.setGitlabPreReleaseDesired(true);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithTagAlreadyExists() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andReturn(gitlabTag);
+
+        replayAll();
+
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithTagAlreadyExistsAndFailedTagLookupByName() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new GitlabAPIException("Internal Server Error", Integer.valueOf(500), null));
+
+        gitlabClient.getTags(gitlabProject);
+        expectLastCall().andReturn(singletonList(gitlabTag));
+
+        gitlabTag.getName();
+        expectLastCall().andReturn(PROJECT_VERSION);
+
+        replayAll();
+
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithExceptionOnResolveProject() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andThrow(new IOException());
+
+        replayAll();
+
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to resolve project");
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithExceptionOnResolveLatestCommitOnBranch() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(failingIterator(new IOException()));
+
+        replayAll();
+
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to resolve latest commit");
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithExceptionOnAddTag() throws Exception
+    {
+        mockStatic(GitlabClient.class);
+        GitlabClient.connect(anyObject(GitlabTransport.class), anyObject(Deadline.class));
+        expectLastCall().andReturn(gitlabClient);
+
+        gitlabClient.getProject(REPOSITORY_NAMESPACE, REPOSITORY_NAME);
+        expectLastCall().andReturn(gitlabProject);
+
+        gitlabProject.getNameWithNamespace();
+        expectLastCall().andReturn(REPOSITORY_NAMESPACE + "/" + REPOSITORY_NAME);
+
+        gitlabProject.getId();
+        expectLastCall().andReturn(Integer.valueOf(1));
+
+        gitlabClient.get("/projects/1/repository/tags/" + PROJECT_VERSION, GitlabTag.class);
+        expectLastCall().andThrow(new FileNotFoundException());
+
+        gitlabClient.asIterator("/projects/1/repository/tags?order_by=updated&sort=desc&per_page=100", GitlabTag[].class);
+        expectLastCall().andReturn(emptyIterator());
+
+        gitlabClient.getBranch(Integer.valueOf(1), "master");
+        expectLastCall().andReturn(gitlabBranch);
+
+        gitlabBranch.getCommit();
+        expectLastCall().andReturn(gitlabBranchHeadCommit);
+
+        gitlabBranchHeadCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.asIterator("/projects/1/repository/commits?ref_name=COMMIT_REF&per_page=100", GitlabCommit[].class);
+        expectLastCall().andReturn(singletonList(new GitlabCommit[] { gitlabCommit }).iterator());
+
+        gitlabCommit.getTitle();
+        expectLastCall().andReturn("COMMIT_TITLE").times(2);
+
+        gitlabCommit.getId();
+        expectLastCall().andReturn("COMMIT_REF");
+
+        gitlabClient.addTag(gitlabProject, PROJECT_VERSION, "COMMIT_REF", "", "* COMMIT_TITLE (COMMIT_REF)\n");
+        expectLastCall().andThrow(new IOException());
+
+        replayAll();
+
+        assertThatThrownBy(gitlabReleaseMojo::execute).isInstanceOf(MojoExecutionException.class).hasMessage("Failed to add tag");
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExecuteWithoutScmUrlAndGitlabRepositoryNamespace() throws Exception
+    {
+        replayAll();
+
+        gitlabReleaseMojo.setGitlabRepositoryNamespace(null);
+        gitlabReleaseMojo.setProjectScmUrl(null);
+        gitlabReleaseMojo.execute();
+
+        verifyAll();
+    }
+
+    private String initRepositoryWithOneCommit() throws Exception
+    {
+        try (Git git = Git.init().setDirectory(temporaryFolder.getRoot()).call())
+        {
+            return git.commit().setMessage("COMMIT_TITLE").setAllowEmpty(true).call().getName();
+        }
+    }
+
+    private static void assertSpooledRelease(File spoolDirectory, String headCommitId) throws IOException
+    {
+        ReleaseSpool spool = new ReleaseSpool(spoolDirectory.toPath());
+        assertThat(spool.list()).hasSize(1);
+        assertThat(spool.read(spool.list().get(0))).isEqualToComparingFieldByField(
+                new ReleaseRequest(GITLAB_HOST, REPOSITORY_NAMESPACE, REPOSITORY_NAME, PROJECT_VERSION, headCommitId, "* COMMIT_TITLE (" + headCommitId + ")\n", null));
+    }
+
+    private static void openCircuitBreaker(MavenSession session)
+    {
+        CircuitBreaker circuitBreaker = GitlabSessionCache.of(session).getCircuitBreaker(GITLAB_HOST, 5);
+        for (int i = 0; i < 5; i++)
+        {
+            circuitBreaker.recordFailure();
+        }
+    }
+
+    private static <T> Iterator<T[]> failingIterator(IOException e)
+    {
+        return new Iterator<T[]>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return true;
+            }
+
+            @Override
+            public T[] next()
+            {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static MavenProject createProject(String artifactId)
+    {
+        MavenProject project = new MavenProject();
+        project.setGroupId("com.avides.gitlab");
+        project.setArtifactId(artifactId);
+        project.setVersion(PROJECT_VERSION);
+        return project;
     }
 }
@@ -0,0 +1,106 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.powermock.api.easymock.PowerMock.replayAll;
+import static org.powermock.api.easymock.PowerMock.verifyAll;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.easymock.annotation.MockStrict;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+public class GitlabSessionCacheTest
+{
+    @MockStrict
+    private GitlabTransport transport;
+
+    @MockStrict
+    private GitlabTransport otherTransport;
+
+    @Test
+    public void testOf()
+    {
+        MavenSession session = new MavenSession(null, null, new DefaultMavenExecutionRequest(), null);
+
+        assertThat(GitlabSessionCache.of(session)).isSameAs(GitlabSessionCache.of(session));
+        assertThat(GitlabSessionCache.of(session)).isSameAs(GitlabSessionCache.of(session.clone()));
+        assertThat(GitlabSessionCache.of(session)).isNotSameAs(GitlabSessionCache.of(new MavenSession(null, null, new DefaultMavenExecutionRequest(), null)));
+    }
+
+    @Test
+    public void testOfWithoutSession()
+    {
+        assertThat(GitlabSessionCache.of(null)).isNotSameAs(GitlabSessionCache.of(null));
+    }
+
+    @Test
+    public void testGetRepository()
+    {
+        replayAll();
+
+        GitlabSessionCache cache = new GitlabSessionCache();
+        CachedGitlabRepository repository = cache.getRepository("HOST", "TOKEN", "NAMESPACE", "NAME", () -> transport);
+
+        assertThat(repository.getTransport()).isSameAs(transport);
+        assertThat(cache.getRepository("HOST", "TOKEN", "NAMESPACE", "NAME", () -> otherTransport)).isSameAs(repository);
+        CachedGitlabRepository otherRepository = cache.getRepository("HOST", "TOKEN", "NAMESPACE", "OTHER_NAME", () -> otherTransport);
+        assertThat(otherRepository).isNotSameAs(repository);
+        assertThat(otherRepository.getTransport()).isSameAs(transport);
+        assertThat(cache.getRepository("HOST", "OTHER_TOKEN", "NAMESPACE", "NAME", () -> otherTransport).getTransport()).isSameAs(otherTransport);
+
+        verifyAll();
+    }
+
+    @Test
+    public void testExistingTags()
+    {
+        CachedGitlabRepository repository = new CachedGitlabRepository(transport);
+        repository.setLastReleaseTag(null);
+
+        assertThat(repository.isTagExisting("1.0.0-RELEASE")).isFalse();
+        assertThat(repository.isLastReleaseTagResolved()).isTrue();
+
+        repository.addExistingTag("1.0.0-RELEASE");
+
+        assertThat(repository.isTagExisting("1.0.0-RELEASE")).isTrue();
+        assertThat(repository.isLastReleaseTagResolved()).isFalse();
+    }
+
+    @Test
+    public void testGetCircuitBreaker()
+    {
+        GitlabSessionCache cache = new GitlabSessionCache();
+        CircuitBreaker circuitBreaker = cache.getCircuitBreaker("HOST", 2);
+
+        assertThat(cache.getCircuitBreaker("HOST", 5)).isSameAs(circuitBreaker);
+        assertThat(cache.getCircuitBreaker("OTHER_HOST", 2)).isNotSameAs(circuitBreaker);
+    }
+
+    @Test
+    public void testDeferredReleases()
+    {
+        GitlabSessionCache cache = new GitlabSessionCache();
+        ReleaseContext firstRelease = new ReleaseContext("NAMESPACE", "NAME", "1.0.0-RELEASE", "master", null, null, true, Deadline.NONE);
+        ReleaseContext secondRelease = new ReleaseContext("NAMESPACE", "OTHER_NAME", "1.0.0-RELEASE", "master", null, null, true, Deadline.NONE);
+
+        assertThat(cache.addDeferredRelease("HOST/NAMESPACE/NAME:1.0.0-RELEASE", firstRelease)).isTrue();
+        assertThat(cache.addDeferredRelease("HOST/NAMESPACE/NAME:1.0.0-RELEASE", firstRelease.withDeadline(Deadline.after(1000)))).isFalse();
+        assertThat(cache.addDeferredRelease("HOST/NAMESPACE/OTHER_NAME:1.0.0-RELEASE", secondRelease)).isTrue();
+
+        assertThat(cache.drainDeferredReleases()).containsExactly(firstRelease, secondRelease);
+        assertThat(cache.drainDeferredReleases()).isEmpty();
+    }
+
+    @Test
+    public void testMarkProjectFinished()
+    {
+        GitlabSessionCache cache = new GitlabSessionCache();
+
+        assertThat(cache.markProjectFinished("first-module")).isEqualTo(1);
+        assertThat(cache.markProjectFinished("first-module")).isEqualTo(1);
+        assertThat(cache.markProjectFinished("last-module")).isEqualTo(2);
+    }
+}
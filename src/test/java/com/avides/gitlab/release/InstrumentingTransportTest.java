@@ -0,0 +1,81 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class InstrumentingTransportTest
+{
+    private final ReleaseReport report = new ReleaseReport();
+
+    @Test
+    public void testExecute() throws Exception
+    {
+        InstrumentingTransport transport = new InstrumentingTransport(request ->
+        {
+            if (request.getPath().contains("/tags?"))
+            {
+                return new GitlabResponse(200, singletonMap("X-Next-Page", singletonList("2")), "[{}]".getBytes(StandardCharsets.UTF_8), 24, 2);
+            }
+            return new GitlabResponse(404, emptyMap(), "{}".getBytes(StandardCharsets.UTF_8));
+        }, report);
+
+        transport.execute(GitlabRequest.get("/projects/1/repository/tags?per_page=100"));
+        transport.execute(GitlabRequest.get("/projects/1/repository/tags?per_page=100&page=2"));
+        GitlabResponse response = transport.execute(GitlabRequest.get("/projects/NAMESPACE%2FNAME/repository/tags/1.0.0"));
+
+        assertThat(response.getStatusCode()).isEqualTo(404);
+        assertThat(report.getRequests())
+                .extracting(ReleaseReport.Request::getEndpoint, ReleaseReport.Request::getStatus, ReleaseReport.Request::getBytes, ReleaseReport.Request::getPage,
+                        ReleaseReport.Request::getRetries)
+                .containsExactly(tuple("/projects/:id/repository/tags", 200, 24L, 1, 2), tuple("/projects/:id/repository/tags", 200, 24L, 2, 2),
+                        tuple("/projects/:id/repository/tags/:name", 404, 2L, null, 0));
+    }
+
+    @Test
+    public void testExecuteWithFailure()
+    {
+        InstrumentingTransport transport = new InstrumentingTransport(request ->
+        {
+            throw new ConnectException("Connection refused");
+        }, report);
+
+        assertThatThrownBy(() -> transport.execute(GitlabRequest.post("/projects/1/repository/tags", new byte[0]))).isInstanceOf(ConnectException.class);
+
+        assertThat(report.getRequests()).extracting(ReleaseReport.Request::getMethod, ReleaseReport.Request::getStatus, ReleaseReport.Request::getError)
+                .containsExactly(tuple("POST", 0, "java.net.ConnectException: Connection refused"));
+    }
+
+    @Test
+    public void testExecuteWithFailureAfterRetries()
+    {
+        ConnectException exception = new ConnectException("Connection refused");
+        exception.addSuppressed(new RetryingTransport.Retries(2));
+        InstrumentingTransport transport = new InstrumentingTransport(request ->
+        {
+            throw exception;
+        }, report);
+
+        assertThatThrownBy(() -> transport.execute(GitlabRequest.get("/projects/1"))).isSameAs(exception);
+
+        assertThat(report.getRequests()).extracting(ReleaseReport.Request::getStatus, ReleaseReport.Request::getRetries).containsExactly(tuple(0, 2));
+    }
+
+    @Test
+    public void testToEndpoint()
+    {
+        assertThat(InstrumentingTransport.toEndpoint("/version")).isEqualTo("/version");
+        assertThat(InstrumentingTransport.toEndpoint("/projects/NAMESPACE%2FNAME")).isEqualTo("/projects/:id");
+        assertThat(InstrumentingTransport.toEndpoint("/projects/1/repository/branches/master")).isEqualTo("/projects/:id/repository/branches/:name");
+        assertThat(InstrumentingTransport.toEndpoint("/projects/1/repository/commits?ref_name=HEAD&page=1")).isEqualTo("/projects/:id/repository/commits");
+        assertThat(InstrumentingTransport.toEndpoint("/groups/GROUP/projects?simple=true")).isEqualTo("/groups/:id/projects");
+    }
+}
@@ -0,0 +1,200 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LocalGitHistoryTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Git git;
+
+    private final List<String> commitTitles = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception
+    {
+        git = Git.init().setDirectory(temporaryFolder.getRoot()).call();
+    }
+
+    @After
+    public void tearDown()
+    {
+        git.close();
+    }
+
+    @Test
+    public void testWalkCommitsSinceLastRelease() throws Exception
+    {
+        commit("First commit");
+        git.tag().setName("0.1.0-RELEASE").call();
+        commit("Second commit");
+        git.tag().setName("0.2.0-RELEASE").setAnnotated(false).call();
+        commit("Third commit");
+        git.tag().setName("0.3.0-SNAPSHOT").call();
+        RevCommit head = commit("Fourth commit");
+
+        try (LocalGitHistory localGitHistory = LocalGitHistory.open(temporaryFolder.newFolder("module")))
+        {
+            assertThat(localGitHistory.resolveHead("master")).isEqualTo(head.getName());
+            assertThat(localGitHistory.isTagExisting("0.2.0-RELEASE")).isTrue();
+            assertThat(localGitHistory.isTagExisting("1.0.0-RELEASE")).isFalse();
+            assertThat(localGitHistory.walkCommitsSinceLastRelease(localGitHistory.resolveHead("master"), tagName -> tagName.endsWith("-RELEASE"), null,
+                    commit -> commitTitles.add(commit.getShortMessage())))
+                    .isEqualTo("0.2.0-RELEASE");
+        }
+
+        assertThat(commitTitles).containsExactly("Fourth commit", "Third commit");
+    }
+
+    @Test
+    public void testResolveHead() throws Exception
+    {
+        RevCommit master = commit("First commit");
+        git.checkout().setCreateBranch(true).setName("feature").call();
+        RevCommit feature = commit("Feature commit");
+
+        try (LocalGitHistory localGitHistory = LocalGitHistory.open(temporaryFolder.getRoot()))
+        {
+            assertThat(localGitHistory.resolveHead("master")).isEqualTo(master.getName());
+            // HEAD if the branch is unknown
+            assertThat(localGitHistory.resolveHead("unknown")).isEqualTo(feature.getName());
+        }
+
+        // the remote tracking branch is preferred
+        RefUpdate refUpdate = git.getRepository().updateRef(Constants.R_REMOTES + "origin/master");
+        refUpdate.setNewObjectId(feature);
+        refUpdate.update();
+
+        try (LocalGitHistory localGitHistory = LocalGitHistory.open(temporaryFolder.getRoot()))
+        {
+            assertThat(localGitHistory.resolveHead("master")).isEqualTo(feature.getName());
+        }
+    }
+
+    @Test
+    public void testWalkCommitsSinceLastReleaseWithReleaseOnOtherBranch() throws Exception
+    {
+        commit("First commit");
+        git.branchCreate().setName("other").call();
+        git.checkout().setName("other").call();
+        commit("Other commit");
+        git.tag().setName("0.1.0-RELEASE").call();
+        git.checkout().setName("master").call();
+        commit("Second commit");
+
+        try (LocalGitHistory localGitHistory = LocalGitHistory.open(temporaryFolder.getRoot()))
+        {
+            assertThat(localGitHistory.walkCommitsSinceLastRelease(localGitHistory.resolveHead("master"), tagName -> true, null,
+                    commit -> commitTitles.add(commit.getShortMessage()))).isNull();
+        }
+
+        assertThat(commitTitles).containsExactly("Second commit", "First commit");
+    }
+
+    @Test
+    public void testWalkCommitsSinceLastReleaseWithMergedReleaseBranch() throws Exception
+    {
+        commit("First commit", 1000);
+        git.tag().setName("0.1.0-RELEASE").call();
+        git.branchCreate().setName("release").call();
+        git.checkout().setName("release").call();
+        RevCommit releaseCommit = commit("Release commit", 3000);
+        git.tag().setName("0.2.0-RELEASE").call();
+        git.checkout().setName("master").call();
+        commit("other.txt", "Master commit", 2000);
+        git.merge().include(releaseCommit).setMessage("Merge release").call();
+
+        try (LocalGitHistory localGitHistory = LocalGitHistory.open(temporaryFolder.getRoot()))
+        {
+            assertThat(localGitHistory.walkCommitsSinceLastRelease(localGitHistory.resolveHead("master"), tagName -> true, null,
+                    commit -> commitTitles.add(commit.getShortMessage())))
+                    .isEqualTo("0.2.0-RELEASE");
+        }
+
+        assertThat(commitTitles).containsExactly("Merge release", "Master commit");
+    }
+
+    @Test
+    public void testWalkCommitsSinceLastReleaseWithPath() throws Exception
+    {
+        commit("First commit");
+        git.tag().setName("0.1.0-RELEASE").call();
+        commit("module/file.txt", "Module commit");
+        commit("Other commit");
+        commit("module/other/file.txt", "Nested module commit");
+
+        try (LocalGitHistory localGitHistory = LocalGitHistory.open(temporaryFolder.getRoot()))
+        {
+            assertThat(localGitHistory.walkCommitsSinceLastRelease(localGitHistory.resolveHead("master"), tagName -> true, "module",
+                    commit -> commitTitles.add(commit.getShortMessage())))
+                    .isEqualTo("0.1.0-RELEASE");
+        }
+
+        assertThat(commitTitles).containsExactly("Nested module commit", "Module commit");
+    }
+
+    @Test
+    public void testFindRelativePath() throws Exception
+    {
+        assertThat(LocalGitHistory.findRelativePath(temporaryFolder.newFolder("parent", "module"))).isEqualTo("parent/module");
+        assertThat(LocalGitHistory.findRelativePath(temporaryFolder.getRoot())).isNull();
+        assertThat(LocalGitHistory.findRelativePath(temporaryFolder.getRoot().getParentFile().toPath().resolve("missing").toFile())).isNull();
+    }
+
+    @Test
+    public void testOpenWithoutRepository() throws Exception
+    {
+        assertThatThrownBy(() -> LocalGitHistory.open(temporaryFolder.getRoot().getParentFile().toPath().resolve("missing").toFile())).isInstanceOf(IOException.class);
+    }
+
+    private RevCommit commit(String message) throws Exception
+    {
+        return commit("file.txt", message);
+    }
+
+    private RevCommit commit(String path, String message) throws Exception
+    {
+        Path file = temporaryFolder.getRoot().toPath().resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, message.getBytes(StandardCharsets.UTF_8));
+        git.add().addFilepattern(path).call();
+        return git.commit().setMessage(message).setAuthor("author", "author@avides.com").setCommitter("author", "author@avides.com").call();
+    }
+
+    private RevCommit commit(String message, long epochSeconds) throws Exception
+    {
+        return commit("file.txt", message, epochSeconds);
+    }
+
+    private RevCommit commit(String path, String message, long epochSeconds) throws Exception
+    {
+        Path file = temporaryFolder.getRoot().toPath().resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, message.getBytes(StandardCharsets.UTF_8));
+        git.add().addFilepattern(path).call();
+        PersonIdent person = new PersonIdent("author", "author@avides.com", new Date(epochSeconds * 1000), TimeZone.getTimeZone("UTC"));
+        return git.commit().setMessage(message).setAuthor(person).setCommitter(person).call();
+    }
+}
@@ -0,0 +1,83 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.gitlab.api.models.GitlabCommit;
+import org.junit.Test;
+
+public class ReleaseNoteTest
+{
+    @Test
+    public void testAppend()
+    {
+        ReleaseNote releaseNote = new ReleaseNote(0, 0);
+
+        assertThat(releaseNote.append(commit("COMMIT_TITLE", "COMMIT_REF"))).isTrue();
+        assertThat(releaseNote.append(commit("Merge branch 'feature' into 'master'", "MERGE_REF"))).isTrue();
+        assertThat(releaseNote.append(commit("ANOTHER_COMMIT_TITLE", "ANOTHER_COMMIT_REF"))).isTrue();
+
+        assertThat(releaseNote.isFull()).isFalse();
+        assertThat(releaseNote.getCommits()).isEqualTo(2);
+        assertThat(releaseNote).hasToString("* COMMIT_TITLE (COMMIT_REF)\n* ANOTHER_COMMIT_TITLE (ANOTHER_COMMIT_REF)\n");
+    }
+
+    @Test
+    public void testAppendWithMaxCommits()
+    {
+        ReleaseNote releaseNote = new ReleaseNote(1, 0);
+
+        assertThat(releaseNote.append(commit("COMMIT_TITLE", "COMMIT_REF"))).isTrue();
+        assertThat(releaseNote.append(commit("ANOTHER_COMMIT_TITLE", "ANOTHER_COMMIT_REF"))).isFalse();
+        assertThat(releaseNote.append(commit("Merge branch 'feature' into 'master'", "MERGE_REF"))).isTrue();
+        assertThat(releaseNote.append(commit("THIRD_COMMIT_TITLE", "THIRD_COMMIT_REF"))).isFalse();
+
+        assertThat(releaseNote.isFull()).isTrue();
+        assertThat(releaseNote.getOmittedCommits()).isEqualTo(2);
+        assertThat(releaseNote).hasToString("* COMMIT_TITLE (COMMIT_REF)\n... and 2 more commits\n");
+    }
+
+    @Test
+    public void testAppendWithMaxBytes()
+    {
+        // "* COMMIT_TITLE (COMMIT_REF)\n" has 28 bytes
+        ReleaseNote releaseNote = new ReleaseNote(0, 40);
+
+        assertThat(releaseNote.append(commit("COMMIT_TITLE", "COMMIT_REF"))).isTrue();
+        assertThat(releaseNote.append(commit("TITLE", "ANOTHER_REF"))).isFalse();
+        // once a commit is omitted, all further commits are omitted to keep the note in order
+        assertThat(releaseNote.append(commit("T", "R"))).isFalse();
+
+        assertThat(releaseNote).hasToString("* COMMIT_TITLE (COMMIT_REF)\n... and 2 more commits\n");
+    }
+
+    @Test
+    public void testAppendWithMaxBytesOfMultiByteCharacters()
+    {
+        ReleaseNote releaseNote = new ReleaseNote(0, 11);
+
+        assertThat(releaseNote.append(commit("äö", "R"))).isTrue();
+        assertThat(releaseNote.append(commit("ü", "R"))).isFalse();
+
+        assertThat(releaseNote).hasToString("* äö (R)\n... and 1 more commit\n");
+    }
+
+    @Test
+    public void testMarkMoreCommitsOmitted()
+    {
+        ReleaseNote releaseNote = new ReleaseNote(1, 0);
+        releaseNote.append(commit("COMMIT_TITLE", "COMMIT_REF"));
+        releaseNote.append(commit("ANOTHER_COMMIT_TITLE", "ANOTHER_COMMIT_REF"));
+
+        releaseNote.markMoreCommitsOmitted();
+
+        assertThat(releaseNote).hasToString("* COMMIT_TITLE (COMMIT_REF)\n... and at least 1 more commit\n");
+    }
+
+    private static GitlabCommit commit(String title, String id)
+    {
+        GitlabCommit commit = new GitlabCommit();
+        commit.setTitle(title);
+        commit.setId(id);
+        return commit;
+    }
+}
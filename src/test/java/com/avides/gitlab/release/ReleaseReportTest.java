@@ -0,0 +1,80 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.gitlab.api.GitlabAPI;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class ReleaseReportTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ReleaseReport report = new ReleaseReport();
+
+    @Test
+    public void testSummarize()
+    {
+        addRequests();
+
+        assertThat(report.summarize())
+                .extracting(ReleaseReport.EndpointSummary::getName, ReleaseReport.EndpointSummary::getRequests, ReleaseReport.EndpointSummary::getPages,
+                        ReleaseReport.EndpointSummary::getRetries, ReleaseReport.EndpointSummary::getErrors, ReleaseReport.EndpointSummary::getTotalMillis,
+                        ReleaseReport.EndpointSummary::getMaxMillis, ReleaseReport.EndpointSummary::getBytes)
+                .containsExactly(tuple("GET /projects/:id", 1, 0, 0, 0, 20L, 20L, 100L), tuple("GET /projects/:id/repository/tags", 2, 2, 1, 0, 70L, 40L, 3000L),
+                        tuple("POST /projects/:id/repository/tags", 1, 0, 0, 1, 5L, 5L, 0L));
+    }
+
+    @Test
+    public void testFormatSummary()
+    {
+        addRequests();
+
+        assertThat(report.formatSummary()).containsExactly(
+                "Endpoint                           | Requests | Pages | Retries | Errors |     Time |      Max |      Bytes",
+                "-----------------------------------+----------+-------+---------+--------+----------+----------+-----------",
+                "GET /projects/:id                  |        1 |     0 |       0 |      0 |    20 ms |    20 ms |        100",
+                "GET /projects/:id/repository/tags  |        2 |     2 |       1 |      0 |    70 ms |    40 ms |       3000",
+                "POST /projects/:id/repository/tags |        1 |     0 |       0 |      1 |     5 ms |     5 ms |          0",
+                "Total                              |        4 |     2 |       1 |      1 |    95 ms |    40 ms |       3100");
+    }
+
+    @Test
+    public void testWrite() throws Exception
+    {
+        addRequests();
+        Path file = temporaryFolder.getRoot().toPath().resolve("target/gitlab-release-report.json");
+
+        report.write(file, Collections.<String, Object> singletonMap("version", "1.0.0"));
+
+        JsonNode json = GitlabAPI.MAPPER.readTree(Files.readAllBytes(file));
+        assertThat(json.get("version").asText()).isEqualTo("1.0.0");
+        assertThat(json.get("endpoints")).hasSize(3);
+        assertThat(json.get("endpoints").get(1).get("requests").asInt()).isEqualTo(2);
+        assertThat(json.get("requests")).hasSize(4);
+
+        JsonNode request = json.get("requests").get(3);
+        assertThat(request.get("method").asText()).isEqualTo("POST");
+        assertThat(request.get("status").asInt()).isEqualTo(0);
+        assertThat(request.get("page").isNull()).isTrue();
+        assertThat(request.get("error").asText()).isEqualTo("java.net.SocketTimeoutException");
+    }
+
+    private void addRequests()
+    {
+        report.add(new ReleaseReport.Request("GET", "/projects/:id", "/projects/1", 200, 20, 100, null, 0, null));
+        report.add(new ReleaseReport.Request("GET", "/projects/:id/repository/tags", "/projects/1/repository/tags", 200, 40, 2000, 1, 1, null));
+        report.add(new ReleaseReport.Request("GET", "/projects/:id/repository/tags", "/projects/1/repository/tags?page=2", 200, 30, 1000, 2, 0, null));
+        report.add(new ReleaseReport.Request("POST", "/projects/:id/repository/tags", "/projects/1/repository/tags", 0, 5, 0, null, 0,
+                "java.net.SocketTimeoutException"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReleaseSpoolTest
+{
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testAdd() throws Exception
+    {
+        ReleaseSpool spool = new ReleaseSpool(new File(temporaryFolder.getRoot(), "spool").toPath());
+        ReleaseRequest request = createRequest("1.0.0");
+
+        Path file = spool.add(request);
+
+        assertThat(spool.list()).containsExactly(file);
+        assertThat(spool.read(file)).isEqualToComparingFieldByFieldRecursively(request);
+        assertThat(file.getParent().toFile().list()).containsExactly(file.getFileName().toString());
+    }
+
+    @Test
+    public void testAddWithAlreadySpooledRelease() throws Exception
+    {
+        ReleaseSpool spool = new ReleaseSpool(temporaryFolder.getRoot().toPath());
+        spool.add(createRequest("1.0.0"));
+        ReleaseRequest request = createRequest("1.0.0");
+        request.setCommitId("OTHER_COMMIT_REF");
+
+        Path file = spool.add(request);
+
+        assertThat(spool.list()).containsExactly(file);
+        assertThat(spool.read(file).getCommitId()).isEqualTo("OTHER_COMMIT_REF");
+    }
+
+    @Test
+    public void testListOldestFirst() throws Exception
+    {
+        ReleaseSpool spool = new ReleaseSpool(temporaryFolder.getRoot().toPath());
+        Path file = spool.add(createRequest("1.0.0"));
+        file.toFile().setLastModified(System.currentTimeMillis() - 60000);
+        Path otherFile = spool.add(createRequest("1.1.0"));
+
+        assertThat(spool.list()).containsExactly(file, otherFile);
+    }
+
+    @Test
+    public void testRemove() throws Exception
+    {
+        ReleaseSpool spool = new ReleaseSpool(temporaryFolder.getRoot().toPath());
+        Path file = spool.add(createRequest("1.0.0"));
+
+        spool.remove(file);
+        spool.remove(file);
+
+        assertThat(spool.list()).isEmpty();
+    }
+
+    @Test
+    public void testListWithoutDirectory() throws Exception
+    {
+        assertThat(new ReleaseSpool(new File(temporaryFolder.getRoot(), "missing").toPath()).list()).isEmpty();
+    }
+
+    private static ReleaseRequest createRequest(String version)
+    {
+        return new ReleaseRequest("GITLAB_HOST", "NAMESPACE", "NAME", version, "COMMIT_REF", "* COMMIT_TITLE (COMMIT_REF)\n",
+                singletonList(new GitlabReleaseLink("artifact.jar", "https://nexus/artifact.jar")));
+    }
+}
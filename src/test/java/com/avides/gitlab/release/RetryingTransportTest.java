@@ -0,0 +1,254 @@
+package com.avides.gitlab.release;
+
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Test;
+
+public class RetryingTransportTest
+{
+    private static final long NOW = 1_000_000_000_000L;
+
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC);
+
+    private static final GitlabRequest GET = GitlabRequest.get("/projects/1");
+
+    private static final GitlabRequest POST = GitlabRequest.post("/projects/1/repository/tags", new byte[0]);
+
+    private final List<Long> sleeps = new ArrayList<>();
+
+    private int executions;
+
+    @Test
+    public void testExecuteWithSuccess() throws Exception
+    {
+        GitlabResponse response = createTransport(response(200)).execute(GET);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getRetries()).isEqualTo(0);
+        assertThat(executions).isEqualTo(1);
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    public void testExecuteWithServerErrors() throws Exception
+    {
+        GitlabResponse response = createTransport(response(502), response(500), response(200)).execute(GET);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getRetries()).isEqualTo(2);
+        assertThat(executions).isEqualTo(3);
+        // jitter of 0.5 -> half of 100 and 200 ms
+        assertThat(sleeps).containsExactly(Long.valueOf(50), Long.valueOf(100));
+    }
+
+    @Test
+    public void testExecuteWithExhaustedRetries() throws Exception
+    {
+        GitlabResponse response = createTransport(response(503), response(503), response(503), response(503)).execute(GET);
+
+        assertThat(response.getStatusCode()).isEqualTo(503);
+        assertThat(response.getRetries()).isEqualTo(3);
+        assertThat(executions).isEqualTo(4);
+        assertThat(sleeps).containsExactly(Long.valueOf(50), Long.valueOf(100), Long.valueOf(200));
+    }
+
+    @Test
+    public void testExecuteWithRetryAfter() throws Exception
+    {
+        GitlabResponse response = createTransport(response(429, "Retry-After", "3"), response(200)).execute(GET);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(sleeps).containsExactly(Long.valueOf(3000));
+    }
+
+    @Test
+    public void testExecuteWithRateLimitReset() throws Exception
+    {
+        GitlabResponse response = createTransport(response(429, "RateLimit-Remaining", "0", "RateLimit-Reset", String.valueOf(NOW / 1000 + 2)), response(200)).execute(GET);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        // the rate limit reset is awaited only once
+        assertThat(sleeps).containsExactly(Long.valueOf(2000));
+    }
+
+    @Test
+    public void testExecuteWithRateLimitResetInThePast() throws Exception
+    {
+        GitlabResponse response = createTransport(response(429, "RateLimit-Remaining", "0", "RateLimit-Reset", String.valueOf(NOW / 1000 - 1)), response(200)).execute(GET);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getRetries()).isEqualTo(1);
+        assertThat(sleeps).containsExactly(Long.valueOf(0));
+    }
+
+    @Test
+    public void testExecuteWithRetryAfterDateInThePast() throws Exception
+    {
+        String retryAfter = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(NOW - 2000).atZone(ZoneOffset.UTC));
+        GitlabResponse response = createTransport(response(503, "Retry-After", retryAfter), response(200)).execute(GET);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(sleeps).containsExactly(Long.valueOf(0));
+    }
+
+    @Test
+    public void testExecuteWithExhaustedRateLimit() throws Exception
+    {
+        RetryingTransport transport = createTransport(response(200, "RateLimit-Remaining", "0", "RateLimit-Reset", String.valueOf(NOW / 1000 + 5)), response(200));
+
+        transport.execute(GET);
+        assertThat(sleeps).isEmpty();
+
+        transport.execute(GET);
+        assertThat(sleeps).containsExactly(Long.valueOf(5000));
+    }
+
+    @Test
+    public void testExecuteWithIOException() throws Exception
+    {
+        GitlabResponse response = createTransport(new SocketTimeoutException(), response(200)).execute(GET);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(executions).isEqualTo(2);
+    }
+
+    @Test
+    public void testExecuteWithoutIdempotencyAndServerError() throws Exception
+    {
+        GitlabResponse response = createTransport(response(502), response(200)).execute(POST);
+
+        assertThat(response.getStatusCode()).isEqualTo(502);
+        assertThat(executions).isEqualTo(1);
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    public void testExecuteWithoutIdempotencyAndTooManyRequests() throws Exception
+    {
+        GitlabResponse response = createTransport(response(429), response(201)).execute(POST);
+
+        assertThat(response.getStatusCode()).isEqualTo(201);
+        assertThat(executions).isEqualTo(2);
+    }
+
+    @Test
+    public void testExecuteWithExhaustedRetriesOnFailure()
+    {
+        SocketTimeoutException exception = new SocketTimeoutException();
+
+        assertThatThrownBy(() -> createTransport(exception, exception, exception, exception).execute(GET)).isSameAs(exception);
+        assertThat(executions).isEqualTo(4);
+        assertThat(RetryingTransport.getRetries(exception)).isEqualTo(3);
+    }
+
+    @Test
+    public void testExecuteWithoutIdempotencyAndReadTimeout()
+    {
+        SocketTimeoutException exception = new SocketTimeoutException();
+
+        assertThatThrownBy(() -> createTransport(exception, response(201)).execute(POST)).isSameAs(exception);
+        assertThat(executions).isEqualTo(1);
+        assertThat(RetryingTransport.getRetries(exception)).isEqualTo(0);
+    }
+
+    @Test
+    public void testExecuteWithoutIdempotencyAndConnectionRefused() throws Exception
+    {
+        GitlabResponse response = createTransport(new ConnectException(), response(201)).execute(POST);
+
+        assertThat(response.getStatusCode()).isEqualTo(201);
+        assertThat(executions).isEqualTo(2);
+    }
+
+    @Test
+    public void testExecuteWithClientError() throws Exception
+    {
+        GitlabResponse response = createTransport(response(404), response(200)).execute(GET);
+
+        assertThat(response.getStatusCode()).isEqualTo(404);
+        assertThat(executions).isEqualTo(1);
+    }
+
+    @Test
+    public void testExecuteWithRetryAfterBeyondDeadline() throws Exception
+    {
+        GitlabResponse response = createTransport(response(429, "Retry-After", "3"), response(200)).execute(GET.withDeadline(Deadline.after(1000, CLOCK)));
+
+        assertThat(response.getStatusCode()).isEqualTo(429);
+        assertThat(executions).isEqualTo(1);
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    public void testExecuteWithBackoffWithinDeadline() throws Exception
+    {
+        GitlabResponse response = createTransport(response(502), response(200)).execute(GET.withDeadline(Deadline.after(1000, CLOCK)));
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(sleeps).containsExactly(Long.valueOf(50));
+    }
+
+    @Test
+    public void testExecuteWithDeadlineExceeded()
+    {
+        DeadlineExceededException exception = new DeadlineExceededException("EXCEEDED");
+
+        assertThatThrownBy(() -> createTransport(exception, response(200)).execute(GET)).isSameAs(exception);
+        assertThat(executions).isEqualTo(1);
+    }
+
+    @Test
+    public void testExecuteWithRateLimitResetBeyondDeadline() throws Exception
+    {
+        RetryingTransport transport = createTransport(response(200, "RateLimit-Remaining", "0", "RateLimit-Reset", String.valueOf(NOW / 1000 + 5)), response(200));
+
+        transport.execute(GET);
+
+        assertThatThrownBy(() -> transport.execute(GET.withDeadline(Deadline.after(1000, CLOCK)))).isInstanceOf(DeadlineExceededException.class);
+        assertThat(executions).isEqualTo(1);
+        assertThat(sleeps).isEmpty();
+    }
+
+    private RetryingTransport createTransport(Object... outcomes)
+    {
+        Iterator<Object> iterator = Arrays.asList(outcomes).iterator();
+        GitlabTransport transport = request ->
+        {
+            executions++;
+            Object outcome = iterator.next();
+            if (outcome instanceof IOException)
+            {
+                throw (IOException) outcome;
+            }
+            return (GitlabResponse) outcome;
+        };
+        return new RetryingTransport(transport, 3, 100, new SystemStreamLog(), millis -> sleeps.add(Long.valueOf(millis)), CLOCK, () -> 0.5);
+    }
+
+    private static GitlabResponse response(int statusCode, String... headers)
+    {
+        Map<String, List<String>> headerMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < headers.length; i += 2)
+        {
+            headerMap.put(headers[i], Arrays.asList(headers[i + 1]));
+        }
+        return new GitlabResponse(statusCode, headers.length == 0 ? emptyMap() : headerMap, new byte[0]);
+    }
+}
@@ -0,0 +1,219 @@
+package com.avides.gitlab.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class UrlConnectionTransportTest
+{
+    private HttpServer server;
+
+    private final List<HttpExchange> exchanges = new ArrayList<>();
+
+    private final List<String> requestBodies = new ArrayList<>();
+
+    private UrlConnectionTransport transport;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v4/projects/1", this::respond);
+        server.createContext("/api/v4/projects/2", exchange ->
+        {
+            sleep(500);
+            respond(exchange);
+        });
+        server.createContext("/api/v4/projects/3", exchange -> respondLarge(exchange, false));
+        server.createContext("/api/v4/projects/4", exchange -> respondLarge(exchange, true));
+        server.start();
+
+        transport = new UrlConnectionTransport("http://localhost:" + server.getAddress().getPort() + "/", "TOKEN", 1000, 200);
+    }
+
+    @After
+    public void tearDown()
+    {
+        server.stop(0);
+    }
+
+    @Test
+    public void testExecute() throws Exception
+    {
+        GitlabResponse response = transport.execute(GitlabRequest.get("/projects/1?per_page=100"));
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getBodyAsString()).isEqualTo("{\"id\":1}");
+        assertThat(response.getHeader("x-next-page")).isEqualTo("2");
+        // the compressed body is received
+        assertThat(response.getWireBytes()).isEqualTo(gzip("{\"id\":1}").length);
+
+        HttpExchange exchange = exchanges.get(0);
+        assertThat(exchange.getRequestMethod()).isEqualTo("GET");
+        assertThat(exchange.getRequestURI().toString()).isEqualTo("/api/v4/projects/1?per_page=100");
+        assertThat(exchange.getRequestHeaders().getFirst("PRIVATE-TOKEN")).isEqualTo("TOKEN");
+        assertThat(exchange.getRequestHeaders().getFirst("Accept-Encoding")).isEqualTo("gzip");
+    }
+
+    @Test
+    public void testExecuteWithLargeBody() throws Exception
+    {
+        // the uncompressed body is read into an array of its content length
+        GitlabResponse response = transport.execute(GitlabRequest.get("/projects/3"));
+        assertThat(response.getBodyAsString()).isEqualTo(largeBody());
+        assertThat(response.getWireBytes()).isEqualTo(largeBody().length());
+
+        // the gzipped body grows beyond the initial array
+        response = transport.execute(GitlabRequest.get("/projects/4"));
+        assertThat(response.getBodyAsString()).isEqualTo(largeBody());
+        assertThat(response.getWireBytes()).isEqualTo(gzip(largeBody()).length);
+    }
+
+    @Test
+    public void testExecuteWithPost() throws Exception
+    {
+        GitlabResponse response = transport.execute(GitlabRequest.post("/projects/1/repository/tags", "{\"tag_name\":\"1.0.0\"}".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(exchanges.get(0).getRequestMethod()).isEqualTo("POST");
+        assertThat(exchanges.get(0).getRequestHeaders().getFirst("Content-Type")).isEqualTo("application/json");
+        assertThat(requestBodies).containsExactly("{\"tag_name\":\"1.0.0\"}");
+    }
+
+    @Test
+    public void testExecuteWithErrorStatus() throws Exception
+    {
+        GitlabResponse response = transport.execute(GitlabRequest.get("/projects/1/missing"));
+
+        assertThat(response.getStatusCode()).isEqualTo(404);
+        assertThat(response.isSuccessful()).isFalse();
+        assertThat(response.getBodyAsString()).isEqualTo("{\"message\":\"404 Not Found\"}");
+    }
+
+    @Test
+    public void testExecuteReusesConnection() throws Exception
+    {
+        transport.execute(GitlabRequest.get("/projects/1"));
+        transport.execute(GitlabRequest.get("/projects/1/missing"));
+        transport.execute(GitlabRequest.get("/projects/1"));
+
+        assertThat(exchanges).extracting(exchange -> Integer.valueOf(exchange.getRemoteAddress().getPort())).containsOnly(Integer.valueOf(exchanges.get(0).getRemoteAddress().getPort()));
+    }
+
+    @Test
+    public void testExecuteWithReadTimeout()
+    {
+        assertThatThrownBy(() -> transport.execute(GitlabRequest.get("/projects/2"))).isInstanceOf(SocketTimeoutException.class);
+    }
+
+    @Test
+    public void testExecuteWithExpiredDeadline() throws Exception
+    {
+        Deadline deadline = Deadline.after(1);
+        Thread.sleep(10);
+
+        assertThatThrownBy(() -> transport.execute(GitlabRequest.get("/projects/1").withDeadline(deadline))).isInstanceOf(DeadlineExceededException.class);
+        assertThat(exchanges).isEmpty();
+    }
+
+    @Test
+    public void testExecuteWithDeadlineBeforeReadTimeout()
+    {
+        transport = new UrlConnectionTransport("http://localhost:" + server.getAddress().getPort(), "TOKEN", 1000, 0);
+
+        assertThatThrownBy(() -> transport.execute(GitlabRequest.get("/projects/2").withDeadline(Deadline.after(200)))).isInstanceOf(SocketTimeoutException.class);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException
+    {
+        exchanges.add(exchange);
+        requestBodies.add(read(exchange.getRequestBody()));
+
+        boolean found = !exchange.getRequestURI().getPath().endsWith("/missing");
+        byte[] body = gzip(found ? "{\"id\":1}" : "{\"message\":\"404 Not Found\"}");
+
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        exchange.getResponseHeaders().add("X-Next-Page", "2");
+        exchange.sendResponseHeaders(found ? 200 : 404, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody())
+        {
+            outputStream.write(body);
+        }
+    }
+
+    private static void respondLarge(HttpExchange exchange, boolean gzipped) throws IOException
+    {
+        byte[] body = gzipped ? gzip(largeBody()) : largeBody().getBytes(StandardCharsets.UTF_8);
+
+        if (gzipped)
+        {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody())
+        {
+            outputStream.write(body);
+        }
+    }
+
+    private static String largeBody()
+    {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++)
+        {
+            body.append(i > 0 ? "," : "").append("{\"id\":").append(i).append('}');
+        }
+        return body.append(']').toString();
+    }
+
+    private static String read(InputStream inputStream) throws IOException
+    {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1)
+        {
+            outputStream.write(buffer, 0, read);
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(String content) throws IOException
+    {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream))
+        {
+            gzipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}